@@ -0,0 +1,47 @@
+package com.homegenie.gateway.diagnostics;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.blockhound.BlockHound;
+
+import java.util.List;
+
+/**
+ * Only compiled into the {@code diagnostics} build profile. Installs
+ * BlockHound before the server starts, with Reactor's and Netty's own
+ * integrations picked up from the classpath, and reports blocking calls on
+ * event-loop threads to {@link BlockingCalls} instead of failing the request.
+ * Needs {@code -XX:+AllowRedefinitionToAddDeleteMethods} on JDK 13+.
+ */
+@Component
+@ConditionalOnProperty(name = "gateway.diagnostics.blockhound.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class BlockHoundInstaller {
+
+    private final BlockingCalls blockingCalls;
+
+    // class#method entries allowed to block, e.g. synchronous log appenders
+    @Value("${gateway.diagnostics.blockhound.allowed:}")
+    private List<String> allowed;
+
+    @PostConstruct
+    public void install() {
+        BlockHound.install(builder -> {
+            for (String entry : allowed) {
+                int hash = entry.indexOf('#');
+                if (hash > 0) {
+                    builder.allowBlockingCallsInside(entry.substring(0, hash).trim(), entry.substring(hash + 1).trim());
+                }
+            }
+            builder.blockingMethodCallback(method -> blockingCalls.record(
+                    method.toString(), Thread.currentThread(), new Throwable().getStackTrace()));
+        });
+        blockingCalls.markDetectorInstalled();
+        log.info("BlockHound installed; blocking calls on event loops are reported at /actuator/eventloops");
+    }
+}
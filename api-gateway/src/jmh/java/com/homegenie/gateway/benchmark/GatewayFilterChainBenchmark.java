@@ -0,0 +1,207 @@
+package com.homegenie.gateway.benchmark;
+
+import com.homegenie.gateway.compression.ResponseCompressor;
+import com.homegenie.gateway.concurrency.ConcurrencyLimiter;
+import com.homegenie.gateway.config.RateLimitingConfig;
+import com.homegenie.gateway.config.RequestCostProperties;
+import com.homegenie.gateway.filter.AdaptiveConcurrencyFilter;
+import com.homegenie.gateway.filter.JwtAuthenticationFilter;
+import com.homegenie.gateway.filter.RequestCostFilter;
+import com.homegenie.gateway.filter.ResponseCompressionFilter;
+import com.homegenie.gateway.filter.RouteMetricsFilter;
+import com.homegenie.gateway.filter.UpstreamTimingFilter;
+import com.homegenie.gateway.metrics.RouteMetrics;
+import com.homegenie.gateway.security.InternalIdentitySigner;
+import com.homegenie.gateway.security.TokenRevocations;
+import com.homegenie.gateway.security.TokenVerifier;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
+import org.springframework.cloud.gateway.handler.FilteringWebHandler;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The gateway's global filters run together through SCG's
+ * {@link FilteringWebHandler}, with a stand-in for the routing filter that
+ * answers a 2KB JSON body. Route and default filters (rate limiter, cache)
+ * are not part of the chain; see {@link UserKeyResolverBenchmark} for the
+ * limiter's key lookup.
+ * Run with the GC profiler the benchmark profile adds by default:
+ * <pre>mvn -Pbenchmark compile exec:exec -Dbenchmark=GatewayFilterChainBenchmark</pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GatewayFilterChainBenchmark {
+
+    private static final String SECRET = "homegenie-secret-key-change-in-production-minimum-32-chars";
+
+    public enum Scenario {
+        VALID_TOKEN, INVALID_TOKEN, PUBLIC_PATH
+    }
+
+    @Param
+    private Scenario scenario;
+
+    @Param({"false", "true"})
+    private boolean acceptGzip;
+
+    private FilteringWebHandler handler;
+    private Route route;
+    private MockServerHttpRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        RouteMetrics routeMetrics = new RouteMetrics(meterRegistry);
+        KeyResolver keyResolver = new RateLimitingConfig().userKeyResolver();
+
+        InternalIdentitySigner signer = new InternalIdentitySigner("benchmark-internal-identity-secret",
+                Duration.ofSeconds(60));
+        JwtAuthenticationFilter jwtFilter = new JwtAuthenticationFilter(
+                new TokenVerifier(SECRET, 10_000, Duration.ofHours(24), meterRegistry),
+                new TokenRevocations(WebClient.builder(), meterRegistry, signer, "http://localhost:8081", 3, 100_000,
+                        0.01, Duration.ofSeconds(30), Duration.ofSeconds(2)),
+                signer);
+
+        RequestCostProperties.Rule voice = new RequestCostProperties.Rule();
+        voice.setName("voice");
+        voice.setPaths(List.of("/api/maintenance/voice/**"));
+        voice.setCost(4);
+        voice.setMaxInFlight(3);
+        RequestCostProperties costProperties = new RequestCostProperties();
+        costProperties.setRules(List.of(voice));
+
+        AdaptiveConcurrencyFilter concurrencyFilter = new AdaptiveConcurrencyFilter(
+                new ConcurrencyLimiter(meterRegistry, List.of("/api/maintenance/voice/**"), 20, 4, 200));
+        ReflectionTestUtils.setField(concurrencyFilter, "enabled", true);
+        ReflectionTestUtils.setField(concurrencyFilter, "retryAfterSeconds", 1);
+
+        ResponseCompressionFilter compressionFilter = new ResponseCompressionFilter(new ResponseCompressor(
+                meterRegistry, DataSize.ofKilobytes(1), List.of("application/json"), 6));
+        ReflectionTestUtils.setField(compressionFilter, "enabled", true);
+
+        List<GlobalFilter> filters = List.of(
+                new RouteMetricsFilter(routeMetrics),
+                jwtFilter,
+                new RequestCostFilter(costProperties, keyResolver, meterRegistry),
+                concurrencyFilter,
+                compressionFilter,
+                new UpstreamTimingFilter(routeMetrics),
+                new StubUpstreamFilter(jsonBody(2048)));
+        handler = new FilteringWebHandler(filters);
+        route = Route.async()
+                .id("maintenance-service")
+                .uri(URI.create("http://localhost:8082"))
+                .predicate(exchange -> true)
+                .build();
+
+        MockServerHttpRequest.BaseBuilder<?> builder = switch (scenario) {
+            case VALID_TOKEN -> MockServerHttpRequest.get("/api/maintenance/42")
+                    .header(HttpHeaders.AUTHORIZATION, "Bearer " + token(SECRET));
+            case INVALID_TOKEN -> MockServerHttpRequest.get("/api/maintenance/42")
+                    .header(HttpHeaders.AUTHORIZATION, "Bearer " + token("another-secret-of-at-least-thirty-two-bytes"));
+            case PUBLIC_PATH -> MockServerHttpRequest.get("/api/users/technicians");
+        };
+        if (acceptGzip) {
+            builder.header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate, br");
+        }
+        request = builder.build();
+    }
+
+    @Benchmark
+    public void globalFilterChain(Blackhole blackhole) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, route);
+        handler.handle(exchange).block();
+        blackhole.consume(exchange.getResponse().getStatusCode());
+    }
+
+    private static byte[] jsonBody(int size) {
+        StringBuilder json = new StringBuilder("{\"items\":[");
+        for (int i = 0; json.length() < size - 64; i++) {
+            json.append(i == 0 ? "" : ",").append("{\"id\":").append(i).append(",\"status\":\"PENDING\"}");
+        }
+        return json.append("]}").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String token(String secret) {
+        Instant now = Instant.now();
+        return Jwts.builder()
+                .id(UUID.randomUUID().toString())
+                .subject("resident@example.com")
+                .claim("userId", 42L)
+                .claim("role", "USER")
+                .issuedAt(Date.from(now))
+                .expiration(Date.from(now.plus(Duration.ofHours(24))))
+                .signWith(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+    }
+
+    /**
+     * Takes the routing filter's place and answers from memory, so only gateway work is measured.
+     */
+    private static class StubUpstreamFilter implements GlobalFilter, Ordered {
+
+        private final byte[] body;
+
+        StubUpstreamFilter(byte[] body) {
+            this.body = body;
+        }
+
+        @Override
+        public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+            exchange.getResponse().setStatusCode(HttpStatus.OK);
+            exchange.getResponse().getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            exchange.getResponse().getHeaders().setContentLength(body.length);
+            DataBuffer buffer = exchange.getResponse().bufferFactory().wrap(body);
+            return exchange.getResponse().writeWith(Mono.just(buffer));
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.LOWEST_PRECEDENCE;
+        }
+    }
+}
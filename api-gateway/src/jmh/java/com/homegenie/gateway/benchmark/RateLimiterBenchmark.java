@@ -0,0 +1,105 @@
+package com.homegenie.gateway.benchmark;
+
+import com.homegenie.gateway.ratelimit.LocalRateLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cloud.gateway.filter.ratelimit.RateLimiter;
+import org.springframework.cloud.gateway.filter.ratelimit.RedisRateLimiter;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.scripting.support.ResourceScriptSource;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Added latency of a single {@code isAllowed} check, in-process versus Redis.
+ * SampleTime mode reports p50/p90/p99/p999 per limiter.
+ * <p>
+ * The Redis case needs a reachable server ({@code docker compose up redis});
+ * override with {@code -Dredis.host=... -Dredis.port=...}. Run with:
+ * <pre>mvn -Pbenchmark compile exec:exec -Dbenchmark=RateLimiterBenchmark</pre>
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class RateLimiterBenchmark {
+
+    private static final String ROUTE_ID = "maintenance-service";
+
+    @Param({"1000"})
+    private int distinctKeys;
+
+    private String[] keys;
+    private LocalRateLimiter localRateLimiter;
+    private RedisRateLimiter redisRateLimiter;
+    private LettuceConnectionFactory connectionFactory;
+
+    @Setup(Level.Trial)
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public void setUp() {
+        keys = new String[distinctKeys];
+        for (int i = 0; i < distinctKeys; i++) {
+            keys[i] = String.valueOf(i + 1);
+        }
+
+        // Rates high enough that every request is allowed: only the check itself is measured
+        localRateLimiter = new LocalRateLimiter(null,
+                new LocalRateLimiter.Config().setReplenishRate(1_000_000).setBurstCapacity(1_000_000),
+                Duration.ofMinutes(5), new SimpleMeterRegistry());
+
+        connectionFactory = new LettuceConnectionFactory(
+                System.getProperty("redis.host", "localhost"),
+                Integer.getInteger("redis.port", 6379));
+        connectionFactory.afterPropertiesSet();
+
+        DefaultRedisScript script = new DefaultRedisScript<>();
+        script.setScriptSource(new ResourceScriptSource(
+                new ClassPathResource("META-INF/scripts/request_rate_limiter.lua")));
+        script.setResultType(List.class);
+
+        redisRateLimiter = new RedisRateLimiter(new ReactiveStringRedisTemplate(connectionFactory), script, null);
+        redisRateLimiter.getConfig().put(ROUTE_ID, new RedisRateLimiter.Config()
+                .setReplenishRate(1_000_000).setBurstCapacity(1_000_000).setRequestedTokens(1));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        connectionFactory.destroy();
+    }
+
+    @Benchmark
+    public RateLimiter.Response local() {
+        return localRateLimiter.isAllowed(ROUTE_ID, nextKey()).block();
+    }
+
+    @Benchmark
+    public RateLimiter.Response redis() {
+        return redisRateLimiter.isAllowed(ROUTE_ID, nextKey()).block();
+    }
+
+    private String nextKey() {
+        return keys[ThreadLocalRandom.current().nextInt(keys.length)];
+    }
+}
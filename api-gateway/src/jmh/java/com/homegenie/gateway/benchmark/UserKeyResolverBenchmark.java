@@ -0,0 +1,67 @@
+package com.homegenie.gateway.benchmark;
+
+import com.homegenie.gateway.config.RateLimitingConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Key lookup done by {@code RequestRateLimiter} on every request, for callers
+ * identified by {@code X-User-Id} and for anonymous ones keyed by address.
+ * {@code exchangeOnly} is the cost of the mock exchange itself. Run with:
+ * <pre>mvn -Pbenchmark compile exec:exec -Dbenchmark=UserKeyResolverBenchmark</pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UserKeyResolverBenchmark {
+
+    private KeyResolver keyResolver;
+    private MockServerHttpRequest identifiedRequest;
+    private MockServerHttpRequest anonymousRequest;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        keyResolver = new RateLimitingConfig().userKeyResolver();
+        InetSocketAddress client = new InetSocketAddress("203.0.113.7", 52113);
+        identifiedRequest = MockServerHttpRequest.get("/api/maintenance/42")
+                .header("X-User-Id", "42")
+                .remoteAddress(client)
+                .build();
+        anonymousRequest = MockServerHttpRequest.get("/api/users/technicians")
+                .remoteAddress(client)
+                .build();
+    }
+
+    @Benchmark
+    public String userId() {
+        return keyResolver.resolve(MockServerWebExchange.from(identifiedRequest)).block();
+    }
+
+    @Benchmark
+    public String remoteAddress() {
+        return keyResolver.resolve(MockServerWebExchange.from(anonymousRequest)).block();
+    }
+
+    @Benchmark
+    public MockServerWebExchange exchangeOnly() {
+        return MockServerWebExchange.from(identifiedRequest);
+    }
+}
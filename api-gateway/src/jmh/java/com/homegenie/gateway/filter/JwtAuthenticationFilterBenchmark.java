@@ -0,0 +1,134 @@
+package com.homegenie.gateway.filter;
+
+import com.homegenie.gateway.security.InternalIdentitySigner;
+import com.homegenie.gateway.security.TokenRevocations;
+import com.homegenie.gateway.security.TokenVerifier;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of {@link JwtAuthenticationFilter} per request and of its public path
+ * check. Valid tokens hit the verifier's claim cache after warm-up, as they do
+ * in production; invalid ones are parsed and rejected every time. Compare
+ * {@code filter} against {@code exchangeOnly}, which just builds the mock
+ * exchange. Run with:
+ * <pre>mvn -Pbenchmark compile exec:exec -Dbenchmark=JwtAuthenticationFilterBenchmark</pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtAuthenticationFilterBenchmark {
+
+    private static final String SECRET = "homegenie-secret-key-change-in-production-minimum-32-chars";
+
+    private static final String[] PATHS = {
+            "/api/auth/login",
+            "/api/users/me",
+            "/api/maintenance/42",
+            "/api/maintenance/voice/interact",
+            "/api/notifications/demo",
+            "/actuator/prometheus",
+            "/api/dashboard",
+            "/swagger-ui/index.html"};
+
+    public enum Scenario {
+        VALID_TOKEN, INVALID_TOKEN, MISSING_TOKEN, PUBLIC_PATH, PUBLIC_PATH_WITH_TOKEN
+    }
+
+    @Param
+    private Scenario scenario;
+
+    private JwtAuthenticationFilter filter;
+    private MockServerHttpRequest request;
+    private GatewayFilterChain chain;
+    private int pathIndex;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        TokenVerifier verifier = new TokenVerifier(SECRET, 10_000, Duration.ofHours(24), meterRegistry);
+        InternalIdentitySigner signer = new InternalIdentitySigner("benchmark-internal-identity-secret",
+                Duration.ofSeconds(60));
+        // Nothing is revoked, so the Bloom filter answers without calling user-service
+        TokenRevocations revocations = new TokenRevocations(WebClient.builder(), meterRegistry, signer,
+                "http://localhost:8081", 3, 100_000, 0.01, Duration.ofSeconds(30), Duration.ofSeconds(2));
+        filter = new JwtAuthenticationFilter(verifier, revocations, signer);
+        chain = exchange -> Mono.empty();
+
+        String token = token(SECRET);
+        request = switch (scenario) {
+            case VALID_TOKEN -> MockServerHttpRequest.get("/api/maintenance/42")
+                    .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                    .build();
+            case INVALID_TOKEN -> MockServerHttpRequest.get("/api/maintenance/42")
+                    .header(HttpHeaders.AUTHORIZATION, "Bearer " + token("another-secret-of-at-least-thirty-two-bytes"))
+                    .build();
+            case MISSING_TOKEN -> MockServerHttpRequest.get("/api/maintenance/42").build();
+            case PUBLIC_PATH -> MockServerHttpRequest.get("/api/users/technicians").build();
+            case PUBLIC_PATH_WITH_TOKEN -> MockServerHttpRequest.get("/api/users/me")
+                    .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                    .build();
+        };
+    }
+
+    @Benchmark
+    public void filter(Blackhole blackhole) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        filter.filter(exchange, chain).block();
+        blackhole.consume(exchange.getResponse().getStatusCode());
+    }
+
+    @Benchmark
+    public MockServerWebExchange exchangeOnly() {
+        return MockServerWebExchange.from(request);
+    }
+
+    @Benchmark
+    public boolean isPublicPath() {
+        String path = PATHS[pathIndex++ & (PATHS.length - 1)];
+        return JwtAuthenticationFilter.isPublicPath(path);
+    }
+
+    private static String token(String secret) {
+        Instant now = Instant.now();
+        return Jwts.builder()
+                .id(UUID.randomUUID().toString())
+                .subject("resident@example.com")
+                .claim("userId", 42L)
+                .claim("role", "USER")
+                .issuedAt(Date.from(now))
+                .expiration(Date.from(now.plus(Duration.ofHours(24))))
+                .signWith(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+    }
+}
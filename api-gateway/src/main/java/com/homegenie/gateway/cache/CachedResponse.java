@@ -0,0 +1,41 @@
+package com.homegenie.gateway.cache;
+
+import org.springframework.http.HttpHeaders;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * A buffered upstream response held by {@link ResponseCacheStore}.
+ * Only content headers are kept; per-request headers such as CORS and rate
+ * limit headers are produced afresh for every exchange. {@code gzipBody} is
+ * the precompressed variant of {@code body}, or null when the body is too
+ * small or not compressible. Between {@code expiresAt} and {@code staleUntil}
+ * the entry is only served when the upstream fails.
+ */
+public record CachedResponse(int status, HttpHeaders headers, byte[] body, byte[] gzipBody, String etag,
+                             Instant storedAt, Instant expiresAt, Instant staleUntil) {
+
+    public boolean isFresh(Instant now) {
+        return now.isBefore(expiresAt);
+    }
+
+    public boolean isUsableStale(Instant now) {
+        return now.isBefore(staleUntil);
+    }
+
+    /**
+     * Copy that is no longer fresh at {@code now} but keeps its stale window.
+     */
+    public CachedResponse expire(Instant now) {
+        if (!isFresh(now)) {
+            return this;
+        }
+        Instant newStaleUntil = now.plus(Duration.between(expiresAt, staleUntil));
+        return new CachedResponse(status, headers, body, gzipBody, etag, storedAt, now, newStaleUntil);
+    }
+
+    int weight() {
+        return body.length + (gzipBody != null ? gzipBody.length : 0) + 64 * headers.size();
+    }
+}
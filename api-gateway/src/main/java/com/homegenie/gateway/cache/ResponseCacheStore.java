@@ -0,0 +1,125 @@
+package com.homegenie.gateway.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Heap-bounded store for cached gateway responses. Entries are weighed by
+ * body size, so the total footprint stays under
+ * {@code gateway.response-cache.max-size} no matter how large single pages get,
+ * and each entry is kept until its own TTL plus stale-if-error window ends.
+ */
+@Component
+public class ResponseCacheStore {
+
+    private final Cache<String, CachedResponse> cache;
+    private final long maxEntryBytes;
+
+    public ResponseCacheStore(
+            @Value("${gateway.response-cache.max-size:64MB}") DataSize maxSize,
+            @Value("${gateway.response-cache.max-entry-size:1MB}") DataSize maxEntrySize,
+            MeterRegistry meterRegistry) {
+        this.maxEntryBytes = maxEntrySize.toBytes();
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((String key, CachedResponse value) -> value.weight())
+                .expireAfter(new ResponseExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "gatewayResponses");
+    }
+
+    public CachedResponse get(String key) {
+        return cache.getIfPresent(key);
+    }
+
+    public boolean accepts(int bodyLength) {
+        return bodyLength <= maxEntryBytes;
+    }
+
+    public void put(String key, CachedResponse response) {
+        cache.put(key, response);
+    }
+
+    /**
+     * Ends the freshness of every entry cached for a route, e.g. after a write
+     * went through it. Entries stay around as stale copies for the rest of
+     * their stale-if-error window.
+     */
+    public void expireRoute(String routeId, Instant now) {
+        String prefix = routeId + "|";
+        for (String key : cache.asMap().keySet()) {
+            if (key.startsWith(prefix)) {
+                cache.asMap().computeIfPresent(key, (k, cached) -> cached.expire(now));
+            }
+        }
+    }
+
+    /**
+     * Strong validator derived from the body bytes.
+     */
+    public static String etag(byte[] body) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(body);
+            return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(hash).substring(0, 27) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Weak comparison as required for {@code If-None-Match}, so the gzip
+     * variant's {@code W/} validator matches the identity one.
+     */
+    public static boolean etagMatches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || etag == null) {
+            return false;
+        }
+        String opaque = weakTag(etag).substring(2);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String trimmed = candidate.trim();
+            if (trimmed.equals("*") || weakTag(trimmed).substring(2).equals(opaque)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Weak form of a validator, used for content-encoded representations.
+     */
+    public static String weakTag(String etag) {
+        return etag.startsWith("W/") ? etag : "W/" + etag;
+    }
+
+    private static class ResponseExpiry implements Expiry<String, CachedResponse> {
+
+        @Override
+        public long expireAfterCreate(String key, CachedResponse value, long currentTime) {
+            Duration ttl = Duration.between(Instant.now(), value.staleUntil());
+            return ttl.isNegative() ? 0 : ttl.toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, CachedResponse value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, CachedResponse value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.homegenie.gateway.client;
+
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.cloud.gateway.config.HttpClientCustomizer;
+import org.springframework.cloud.gateway.config.HttpClientFactory;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.config.HttpClientSslConfigurer;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.util.List;
+
+/**
+ * Builds an {@link HttpClient} exactly like the gateway's own factory (SSL,
+ * proxy, decoder limits, customizers) but on a dedicated connection pool.
+ */
+class PooledHttpClientFactory extends HttpClientFactory {
+
+    private final String poolName;
+    private final RoutePoolSettings settings;
+    private ConnectionProvider connectionProvider;
+
+    PooledHttpClientFactory(String poolName, RoutePoolSettings settings, HttpClientProperties properties,
+                            ServerProperties serverProperties, HttpClientSslConfigurer sslConfigurer,
+                            List<HttpClientCustomizer> customizers) {
+        super(properties, serverProperties, sslConfigurer, customizers);
+        this.poolName = poolName;
+        this.settings = settings;
+    }
+
+    HttpClient build() {
+        return createInstance().protocol(settings.protocols().toArray(HttpProtocol[]::new));
+    }
+
+    ConnectionProvider getConnectionProvider() {
+        return connectionProvider;
+    }
+
+    @Override
+    protected ConnectionProvider buildConnectionProvider(HttpClientProperties properties) {
+        connectionProvider = ConnectionProvider.builder(poolName)
+                .maxConnections(settings.maxConnections())
+                .pendingAcquireMaxCount(settings.pendingAcquireMaxCount())
+                .pendingAcquireTimeout(settings.pendingAcquireTimeout())
+                .maxIdleTime(settings.maxIdleTime())
+                .maxLifeTime(settings.maxLifeTime())
+                .evictInBackground(settings.evictionInterval())
+                .metrics(true)
+                .build();
+        return connectionProvider;
+    }
+}
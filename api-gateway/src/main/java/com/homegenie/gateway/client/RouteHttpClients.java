@@ -0,0 +1,118 @@
+package com.homegenie.gateway.client;
+
+import io.netty.channel.ChannelOption;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.cloud.gateway.config.HttpClientCustomizer;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.config.HttpClientSslConfigurer;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.stereotype.Component;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.springframework.cloud.gateway.support.RouteMetadataUtils.CONNECT_TIMEOUT_ATTR;
+
+/**
+ * One {@link HttpClient} and connection pool per route, so a slow upstream can
+ * only exhaust its own connections and pending-acquire slots. Pools are named
+ * {@code route-<routeId>} and publish Reactor Netty's
+ * {@code reactor.netty.connection.provider.*} meters tagged with that name.
+ * A route whose pool metadata changes on refresh gets a new pool; the old
+ * one is closed once its connections are released.
+ */
+@Component
+@Slf4j
+public class RouteHttpClients {
+
+    private final HttpClientProperties properties;
+    private final ServerProperties serverProperties;
+    private final HttpClientSslConfigurer sslConfigurer;
+    private final List<HttpClientCustomizer> customizers;
+    private final RoutePoolSettings defaults;
+    private final Map<String, RouteClient> clients = new ConcurrentHashMap<>();
+
+    public RouteHttpClients(
+            HttpClientProperties properties,
+            ServerProperties serverProperties,
+            HttpClientSslConfigurer sslConfigurer,
+            List<HttpClientCustomizer> customizers,
+            @Value("${gateway.http-client.pool.max-connections:100}") int maxConnections,
+            @Value("${gateway.http-client.pool.pending-acquire-max-count:200}") int pendingAcquireMaxCount,
+            @Value("${gateway.http-client.pool.pending-acquire-timeout:5s}") Duration pendingAcquireTimeout,
+            @Value("${gateway.http-client.pool.max-idle-time:30s}") Duration maxIdleTime,
+            @Value("${gateway.http-client.pool.max-life-time:10m}") Duration maxLifeTime,
+            @Value("${gateway.http-client.pool.eviction-interval:30s}") Duration evictionInterval,
+            @Value("${gateway.http-client.pool.protocols:HTTP11}") String protocols) {
+        this.properties = properties;
+        this.serverProperties = serverProperties;
+        this.sslConfigurer = sslConfigurer;
+        this.customizers = customizers;
+        this.defaults = new RoutePoolSettings(maxConnections, pendingAcquireMaxCount, pendingAcquireTimeout,
+                maxIdleTime, maxLifeTime, evictionInterval, RoutePoolSettings.parseProtocols(protocols));
+    }
+
+    public HttpClient clientFor(Route route) {
+        Map<String, Object> metadata = route.getMetadata();
+        // Metadata only changes when routes are refreshed, so this is the path nearly every request takes
+        RouteClient current = clients.get(route.getId());
+        if (current != null && current.metadata().equals(metadata)) {
+            return current.routeClient();
+        }
+
+        return clients.compute(route.getId(), (id, existing) -> {
+            if (existing != null && existing.metadata().equals(metadata)) {
+                return existing;
+            }
+            RoutePoolSettings settings = defaults.withMetadata(metadata);
+            if (existing != null && existing.settings().equals(settings)) {
+                return new RouteClient(metadata, settings, existing.httpClient(), existing.connectionProvider(),
+                        withConnectTimeout(existing.httpClient(), metadata));
+            }
+            if (existing != null) {
+                existing.connectionProvider().disposeLater().subscribe();
+            }
+            return create(id, settings, metadata);
+        }).routeClient();
+    }
+
+    @PreDestroy
+    public void close() {
+        clients.values().forEach(client -> client.connectionProvider().dispose());
+        clients.clear();
+    }
+
+    private RouteClient create(String routeId, RoutePoolSettings settings, Map<String, Object> metadata) {
+        PooledHttpClientFactory factory = new PooledHttpClientFactory("route-" + routeId, settings,
+                properties, serverProperties, sslConfigurer, customizers);
+        HttpClient httpClient = factory.build();
+        log.info("Created connection pool for route {}: maxConnections={}, pendingAcquireMaxCount={}, protocols={}",
+                routeId, settings.maxConnections(), settings.pendingAcquireMaxCount(), settings.protocols());
+        return new RouteClient(metadata, settings, httpClient, factory.getConnectionProvider(),
+                withConnectTimeout(httpClient, metadata));
+    }
+
+    private static HttpClient withConnectTimeout(HttpClient httpClient, Map<String, Object> metadata) {
+        Object connectTimeout = metadata.get(CONNECT_TIMEOUT_ATTR);
+        if (connectTimeout != null) {
+            return httpClient.option(ChannelOption.CONNECT_TIMEOUT_MILLIS,
+                    Integer.parseInt(connectTimeout.toString().trim()));
+        }
+        return httpClient;
+    }
+
+    /**
+     * A route's pool plus the client handed out for it, built from
+     * {@code metadata}.
+     */
+    private record RouteClient(Map<String, Object> metadata, RoutePoolSettings settings, HttpClient httpClient,
+                               ConnectionProvider connectionProvider, HttpClient routeClient) {
+    }
+}
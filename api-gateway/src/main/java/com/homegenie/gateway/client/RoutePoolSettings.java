@@ -0,0 +1,76 @@
+package com.homegenie.gateway.client;
+
+import org.springframework.boot.convert.DurationStyle;
+import reactor.netty.http.HttpProtocol;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Connection pool settings for one route. Values come from the route's
+ * {@code metadata} and fall back to {@code gateway.http-client.pool.*}:
+ * <pre>
+ * metadata:
+ *   max-connections: 20
+ *   pending-acquire-max-count: 40
+ *   pending-acquire-timeout: 2s
+ *   max-idle-time: 30s
+ *   protocols: H2C,HTTP11
+ * </pre>
+ */
+public record RoutePoolSettings(int maxConnections, int pendingAcquireMaxCount, Duration pendingAcquireTimeout,
+                                Duration maxIdleTime, Duration maxLifeTime, Duration evictionInterval,
+                                List<HttpProtocol> protocols) {
+
+    public static final String MAX_CONNECTIONS = "max-connections";
+    public static final String PENDING_ACQUIRE_MAX_COUNT = "pending-acquire-max-count";
+    public static final String PENDING_ACQUIRE_TIMEOUT = "pending-acquire-timeout";
+    public static final String MAX_IDLE_TIME = "max-idle-time";
+    public static final String MAX_LIFE_TIME = "max-life-time";
+    public static final String PROTOCOLS = "protocols";
+
+    /**
+     * Applies the overrides found in route metadata on top of these settings.
+     */
+    public RoutePoolSettings withMetadata(Map<String, Object> metadata) {
+        return new RoutePoolSettings(
+                intValue(metadata.get(MAX_CONNECTIONS), maxConnections),
+                intValue(metadata.get(PENDING_ACQUIRE_MAX_COUNT), pendingAcquireMaxCount),
+                durationValue(metadata.get(PENDING_ACQUIRE_TIMEOUT), pendingAcquireTimeout),
+                durationValue(metadata.get(MAX_IDLE_TIME), maxIdleTime),
+                durationValue(metadata.get(MAX_LIFE_TIME), maxLifeTime),
+                evictionInterval,
+                protocolsValue(metadata.get(PROTOCOLS), protocols));
+    }
+
+    static List<HttpProtocol> parseProtocols(String value) {
+        return Arrays.stream(value.split(","))
+                .map(String::trim)
+                .map(String::toUpperCase)
+                .map(HttpProtocol::valueOf)
+                .toList();
+    }
+
+    private static int intValue(Object value, int fallback) {
+        if (value == null) {
+            return fallback;
+        }
+        return value instanceof Number number ? number.intValue() : Integer.parseInt(value.toString().trim());
+    }
+
+    private static Duration durationValue(Object value, Duration fallback) {
+        if (value == null) {
+            return fallback;
+        }
+        // Bare numbers are milliseconds, as for SCG's own connect-timeout/response-timeout metadata
+        return value instanceof Number number
+                ? Duration.ofMillis(number.longValue())
+                : DurationStyle.detectAndParse(value.toString().trim());
+    }
+
+    private static List<HttpProtocol> protocolsValue(Object value, List<HttpProtocol> fallback) {
+        return value == null ? fallback : parseProtocols(value.toString());
+    }
+}
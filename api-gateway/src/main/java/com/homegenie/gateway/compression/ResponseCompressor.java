@@ -0,0 +1,149 @@
+package com.homegenie.gateway.compression;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Content negotiation and compression shared by the compression filter and
+ * the response cache, which keeps a gzip variant next to each cached body.
+ * Publishes {@code gateway.compression.bytes} (before and after) and
+ * {@code gateway.compression.responses} by result.
+ */
+@Component
+public class ResponseCompressor {
+
+    public static final String GZIP = "gzip";
+    public static final String DEFLATE = "deflate";
+
+    private final long minSize;
+    private final List<MediaType> mimeTypes;
+    private final int level;
+    private final Counter bytesIn;
+    private final Counter bytesOut;
+    private final Counter compressed;
+    private final Counter precompressed;
+    private final Counter skipped;
+
+    public ResponseCompressor(
+            MeterRegistry meterRegistry,
+            @Value("${gateway.compression.min-response-size:1KB}") DataSize minSize,
+            @Value("${gateway.compression.mime-types:application/json,application/*+json,application/xml,text/html,text/plain,text/css,application/javascript}") List<String> mimeTypes,
+            @Value("${gateway.compression.level:6}") int level) {
+        this.minSize = minSize.toBytes();
+        this.mimeTypes = mimeTypes.stream().map(String::trim).map(MediaType::parseMediaType).toList();
+        this.level = level;
+        this.bytesIn = bytesCounter(meterRegistry, "uncompressed");
+        this.bytesOut = bytesCounter(meterRegistry, "compressed");
+        this.compressed = resultCounter(meterRegistry, "compressed");
+        this.precompressed = resultCounter(meterRegistry, "precompressed");
+        this.skipped = resultCounter(meterRegistry, "skipped");
+    }
+
+    /**
+     * Picks the coding to use for a client, preferring gzip; null means identity.
+     */
+    public String negotiate(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return null;
+        }
+        boolean deflate = false;
+        for (String part : acceptEncoding.split(",")) {
+            String[] tokens = part.trim().split(";");
+            String coding = tokens[0].trim().toLowerCase(Locale.ROOT);
+            if (tokens.length > 1 && tokens[1].trim().replace(" ", "").matches("q=0(\\.0*)?")) {
+                continue;
+            }
+            if (coding.equals(GZIP) || coding.equals("*")) {
+                return GZIP;
+            }
+            deflate |= coding.equals(DEFLATE);
+        }
+        return deflate ? DEFLATE : null;
+    }
+
+    /**
+     * Whether a response with these headers is worth buffering for compression.
+     * A known Content-Length under the threshold is rejected up front.
+     */
+    public boolean isCompressible(HttpHeaders headers) {
+        if (headers.containsKey(HttpHeaders.CONTENT_ENCODING)) {
+            return false;
+        }
+        long length = headers.getContentLength();
+        if (length >= 0 && length < minSize) {
+            return false;
+        }
+        MediaType contentType = headers.getContentType();
+        return contentType != null && mimeTypes.stream().anyMatch(type -> type.includes(contentType));
+    }
+
+    public boolean meetsMinSize(int length) {
+        return length >= minSize;
+    }
+
+    public byte[] compress(byte[] body, String encoding) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, body.length / 4));
+        try (DeflaterOutputStream stream = GZIP.equals(encoding)
+                ? new LeveledGzipOutputStream(out, level)
+                : new DeflaterOutputStream(out, new Deflater(level))) {
+            stream.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        byte[] result = out.toByteArray();
+        bytesIn.increment(body.length);
+        bytesOut.increment(result.length);
+        compressed.increment();
+        return result;
+    }
+
+    /**
+     * Records a response served from an already compressed cache variant.
+     */
+    public void recordPrecompressed(int uncompressedLength, int compressedLength) {
+        bytesIn.increment(uncompressedLength);
+        bytesOut.increment(compressedLength);
+        precompressed.increment();
+    }
+
+    public void recordSkipped() {
+        skipped.increment();
+    }
+
+    private static Counter bytesCounter(MeterRegistry meterRegistry, String stage) {
+        return Counter.builder("gateway.compression.bytes")
+                .description("Response body bytes before and after gateway compression")
+                .baseUnit("bytes")
+                .tag("stage", stage)
+                .register(meterRegistry);
+    }
+
+    private static Counter resultCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("gateway.compression.responses")
+                .description("Responses considered for gateway compression")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static class LeveledGzipOutputStream extends GZIPOutputStream {
+
+        LeveledGzipOutputStream(ByteArrayOutputStream out, int level) throws IOException {
+            super(out);
+            def.setLevel(level);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.homegenie.gateway.concurrency;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Gradient-style adaptive concurrency limit for one route. A slow-moving
+ * average of upstream latency is taken as the "no queueing" baseline; when
+ * recent latency rises above it the limit shrinks in proportion, and while
+ * latency stays at the baseline the limit grows by roughly its square root,
+ * leaving headroom for a small queue.
+ */
+public class AdaptiveLimit {
+
+    private static final double SMOOTHING = 0.2;
+    private static final double TOLERANCE = 1.5;
+    private static final int LONG_WINDOW = 600;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private volatile double limit;
+    private double longRttNanos;
+    private double shortRttNanos;
+    private long samples;
+
+    public AdaptiveLimit(int initialLimit, int minLimit, int maxLimit) {
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+    }
+
+    /**
+     * Reserves a slot if the caller's priority still has room under the limit.
+     */
+    public boolean tryAcquire(RequestPriority priority) {
+        int allowed = Math.max(1, (int) (limit * priority.getShare()));
+        while (true) {
+            int current = inFlight.get();
+            if (current >= allowed) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    /**
+     * Feeds one upstream round trip into the limit. {@code inFlightAtStart} is
+     * used to avoid growing the limit while the route is not actually using it.
+     */
+    public synchronized void onSample(long rttNanos, int inFlightAtStart) {
+        samples++;
+        shortRttNanos = samples == 1 ? rttNanos : shortRttNanos * 0.9 + rttNanos * 0.1;
+        double longAlpha = 2.0 / (Math.min(samples, LONG_WINDOW) + 1);
+        longRttNanos = samples == 1 ? rttNanos : longRttNanos * (1 - longAlpha) + shortRttNanos * longAlpha;
+
+        if (inFlightAtStart < limit / 2 && shortRttNanos <= longRttNanos) {
+            return;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longRttNanos / shortRttNanos));
+        double newLimit = limit * gradient + Math.sqrt(limit);
+        newLimit = limit * (1 - SMOOTHING) + newLimit * SMOOTHING;
+        limit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+
+        // Let the baseline drift down when the route recovers so it can re-probe
+        if (longRttNanos / shortRttNanos > 2) {
+            longRttNanos *= 0.95;
+        }
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,85 @@
+package com.homegenie.gateway.concurrency;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holds one {@link AdaptiveLimit} per route and classifies requests into
+ * {@link RequestPriority} classes. Exposes {@code gateway.concurrency.limit},
+ * {@code gateway.concurrency.in.flight} and
+ * {@code gateway.concurrency.rejected} per route.
+ */
+@Component
+public class ConcurrencyLimiter {
+
+    private final MeterRegistry meterRegistry;
+    private final List<PathPattern> criticalPaths;
+    private final int initialLimit;
+    private final int minLimit;
+    private final int maxLimit;
+    private final Map<String, AdaptiveLimit> limits = new ConcurrentHashMap<>();
+    private final Map<String, Counter> rejections = new ConcurrentHashMap<>();
+
+    public ConcurrencyLimiter(
+            MeterRegistry meterRegistry,
+            @Value("${gateway.concurrency.critical-paths:/api/maintenance/voice/**,/api/voice/**}") List<String> criticalPaths,
+            @Value("${gateway.concurrency.initial-limit:20}") int initialLimit,
+            @Value("${gateway.concurrency.min-limit:4}") int minLimit,
+            @Value("${gateway.concurrency.max-limit:200}") int maxLimit) {
+        this.meterRegistry = meterRegistry;
+        this.criticalPaths = criticalPaths.stream()
+                .map(String::trim)
+                .map(PathPatternParser.defaultInstance::parse)
+                .toList();
+        this.initialLimit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+    }
+
+    public AdaptiveLimit limitFor(String routeId) {
+        return limits.computeIfAbsent(routeId, id -> {
+            AdaptiveLimit limit = new AdaptiveLimit(initialLimit, minLimit, maxLimit);
+            Gauge.builder("gateway.concurrency.limit", limit, AdaptiveLimit::getLimit)
+                    .description("Current adaptive concurrency limit")
+                    .tag("routeId", id)
+                    .register(meterRegistry);
+            Gauge.builder("gateway.concurrency.in.flight", limit, AdaptiveLimit::getInFlight)
+                    .description("Requests holding a concurrency slot")
+                    .tag("routeId", id)
+                    .register(meterRegistry);
+            return limit;
+        });
+    }
+
+    public RequestPriority classify(ServerHttpRequest request) {
+        PathContainer path = request.getPath().pathWithinApplication();
+        if (criticalPaths.stream().anyMatch(pattern -> pattern.matches(path))) {
+            return RequestPriority.CRITICAL;
+        }
+        if ("ADMIN".equals(request.getHeaders().getFirst("X-User-Role"))) {
+            return RequestPriority.HIGH;
+        }
+        return request.getMethod() == HttpMethod.GET ? RequestPriority.LOW : RequestPriority.NORMAL;
+    }
+
+    public void recordRejection(String routeId, RequestPriority priority) {
+        rejections.computeIfAbsent(routeId + '|' + priority, k -> Counter.builder("gateway.concurrency.rejected")
+                        .description("Requests shed by the adaptive concurrency limit")
+                        .tag("routeId", routeId)
+                        .tag("priority", priority.name())
+                        .register(meterRegistry))
+                .increment();
+    }
+}
@@ -0,0 +1,31 @@
+package com.homegenie.gateway.concurrency;
+
+/**
+ * Priority classes for admission control. Each class may only fill its share
+ * of a route's concurrency limit, so as a route saturates the lowest classes
+ * are shed first and {@link #CRITICAL} traffic keeps the whole limit.
+ */
+public enum RequestPriority {
+
+    /** Voice reports and other emergency paths. */
+    CRITICAL(1.0),
+
+    /** Requests from administrators. */
+    HIGH(0.9),
+
+    /** Writes from residents and technicians. */
+    NORMAL(0.75),
+
+    /** Dashboard polling and other bulk GETs. */
+    LOW(0.5);
+
+    private final double share;
+
+    RequestPriority(double share) {
+        this.share = share;
+    }
+
+    public double getShare() {
+        return share;
+    }
+}
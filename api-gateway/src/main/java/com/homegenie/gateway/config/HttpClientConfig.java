@@ -0,0 +1,43 @@
+package com.homegenie.gateway.config;
+
+import com.homegenie.gateway.client.RouteHttpClients;
+import com.homegenie.gateway.filter.RouteIsolatingRoutingFilter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.gateway.config.GatewayProperties;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.netty.http.client.HttpClient;
+
+import java.util.List;
+
+@Configuration
+public class HttpClientConfig {
+
+    /**
+     * Per-route connection pools. Takes over from SCG's routing filter, which is
+     * switched off by the same property in application.yml.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "spring.cloud.gateway.global-filter.netty-routing.enabled", havingValue = "false")
+    public RouteIsolatingRoutingFilter routeIsolatingRoutingFilter(
+            HttpClient httpClient,
+            ObjectProvider<List<HttpHeadersFilter>> headersFilters,
+            HttpClientProperties properties,
+            RouteHttpClients routeHttpClients) {
+        return new RouteIsolatingRoutingFilter(httpClient, headersFilters, properties, routeHttpClients);
+    }
+
+    /**
+     * Writes the upstream body that the routing filter leaves on the exchange.
+     * SCG only registers it together with its own routing filter.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "spring.cloud.gateway.global-filter.netty-routing.enabled", havingValue = "false")
+    public NettyWriteResponseFilter nettyWriteResponseFilter(GatewayProperties properties) {
+        return new NettyWriteResponseFilter(properties.getStreamingMediaTypes());
+    }
+}
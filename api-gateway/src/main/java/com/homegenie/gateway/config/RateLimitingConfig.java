@@ -1,13 +1,31 @@
 package com.homegenie.gateway.config;
 
+import com.homegenie.gateway.ratelimit.CostAwareRedisRateLimiter;
+import com.homegenie.gateway.ratelimit.LocalRateLimiter;
+import com.homegenie.gateway.ratelimit.RateLimitReconciler;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
+import org.springframework.cloud.gateway.filter.ratelimit.RedisRateLimiter;
+import org.springframework.cloud.gateway.support.ConfigurationService;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
+import java.util.List;
+
 @Configuration
 @Slf4j
+@EnableConfigurationProperties(RequestCostProperties.class)
 public class RateLimitingConfig {
 
     @Bean
@@ -27,4 +45,47 @@ public class RateLimitingConfig {
             return Mono.just(ip);
         };
     }
+
+    /**
+     * Takes the place of SCG's RedisRateLimiter so per-request costs also apply in redis mode.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "gateway.rate-limiter.mode", havingValue = "redis", matchIfMissing = true)
+    public CostAwareRedisRateLimiter redisRateLimiter(
+            ReactiveStringRedisTemplate redisTemplate,
+            @Qualifier(RedisRateLimiter.REDIS_SCRIPT_NAME) RedisScript<List<Long>> redisScript,
+            ConfigurationService configurationService) {
+        return new CostAwareRedisRateLimiter(redisTemplate, redisScript, configurationService);
+    }
+
+    /**
+     * Replaces the Redis limiter as the default for {@code RequestRateLimiter}
+     * when {@code gateway.rate-limiter.mode} is {@code local} or {@code hybrid}.
+     */
+    @Bean
+    @Primary
+    @ConditionalOnExpression("'${gateway.rate-limiter.mode:redis}' != 'redis'")
+    public LocalRateLimiter localRateLimiter(
+            ConfigurationService configurationService,
+            MeterRegistry meterRegistry,
+            @Value("${gateway.rate-limiter.replenish-rate:10}") int replenishRate,
+            @Value("${gateway.rate-limiter.burst-capacity:20}") int burstCapacity,
+            @Value("${gateway.rate-limiter.requested-tokens:1}") int requestedTokens,
+            @Value("${gateway.rate-limiter.idle-timeout:5m}") Duration idleTimeout) {
+        log.info("Using in-process rate limiter: replenishRate={}, burstCapacity={}", replenishRate, burstCapacity);
+        LocalRateLimiter.Config defaults = new LocalRateLimiter.Config()
+                .setReplenishRate(replenishRate)
+                .setBurstCapacity(burstCapacity)
+                .setRequestedTokens(requestedTokens);
+        return new LocalRateLimiter(configurationService, defaults, idleTimeout, meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "gateway.rate-limiter.mode", havingValue = "hybrid")
+    public RateLimitReconciler rateLimitReconciler(
+            LocalRateLimiter localRateLimiter,
+            ReactiveStringRedisTemplate redisTemplate,
+            @Value("${gateway.rate-limiter.counter-ttl:10s}") Duration counterTtl) {
+        return new RateLimitReconciler(localRateLimiter, redisTemplate, counterTtl);
+    }
 }
@@ -0,0 +1,38 @@
+package com.homegenie.gateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Token costs and per-user in-flight caps for expensive endpoints, see
+ * {@link com.homegenie.gateway.filter.RequestCostFilter}. The first matching
+ * rule applies; requests matching no rule cost the route's requestedTokens.
+ */
+@Data
+@ConfigurationProperties(prefix = "gateway.request-cost")
+public class RequestCostProperties {
+
+    private List<Rule> rules = new ArrayList<>();
+
+    @Data
+    public static class Rule {
+
+        private String name;
+
+        // Limits the rule to one route; any route when empty
+        private String routeId;
+
+        private List<String> paths = new ArrayList<>();
+
+        // Any method when empty
+        private List<String> methods = new ArrayList<>();
+
+        private int cost = 1;
+
+        // Per-user requests in flight on this rule; 0 for no cap
+        private int maxInFlight = 0;
+    }
+}
@@ -0,0 +1,73 @@
+package com.homegenie.gateway.diagnostics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Blocking calls made on event-loop threads, as reported by the BlockHound
+ * integration of the {@code diagnostics} build profile. Each call increments
+ * {@code gateway.eventloop.blocking.calls} and the most recent ones are kept,
+ * with where they were made, for the {@code eventloops} actuator endpoint.
+ * Without that profile nothing reports here and {@link #isDetectorInstalled()}
+ * stays false.
+ */
+@Component
+public class BlockingCalls {
+
+    private static final int MAX_SAMPLES = 50;
+    private static final int MAX_FRAMES = 12;
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private final Deque<Sample> samples = new ArrayDeque<>();
+    private volatile boolean detectorInstalled;
+
+    public BlockingCalls(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public void markDetectorInstalled() {
+        detectorInstalled = true;
+    }
+
+    public boolean isDetectorInstalled() {
+        return detectorInstalled;
+    }
+
+    public void record(String method, Thread thread, StackTraceElement[] stackTrace) {
+        counters.computeIfAbsent(method, name -> Counter.builder("gateway.eventloop.blocking.calls")
+                        .description("Blocking calls detected on event-loop threads")
+                        .tag("method", name)
+                        .register(meterRegistry))
+                .increment();
+
+        List<String> frames = Arrays.stream(stackTrace)
+                .limit(MAX_FRAMES)
+                .map(StackTraceElement::toString)
+                .toList();
+        synchronized (samples) {
+            if (samples.size() == MAX_SAMPLES) {
+                samples.removeFirst();
+            }
+            samples.addLast(new Sample(Instant.now(), method, thread.getName(), frames));
+        }
+    }
+
+    public List<Sample> recent() {
+        synchronized (samples) {
+            return List.copyOf(samples);
+        }
+    }
+
+    public record Sample(Instant at, String method, String thread, List<String> stackTrace) {
+    }
+}
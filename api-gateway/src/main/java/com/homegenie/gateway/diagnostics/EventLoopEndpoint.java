@@ -0,0 +1,33 @@
+package com.homegenie.gateway.diagnostics;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * {@code /actuator/eventloops}: event-loop saturation, time per global filter
+ * and recent blocking calls on event-loop threads in one place.
+ */
+@Component
+@Endpoint(id = "eventloops")
+@RequiredArgsConstructor
+public class EventLoopEndpoint {
+
+    private final EventLoopMetrics eventLoopMetrics;
+    private final FilterTimings filterTimings;
+    private final BlockingCalls blockingCalls;
+
+    @ReadOperation
+    public Map<String, Object> eventLoops() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("loops", eventLoopMetrics.snapshot());
+        result.put("filters", filterTimings.snapshot());
+        result.put("blockingDetection", blockingCalls.isDetectorInstalled() ? "blockhound" : "off");
+        result.put("blockingCalls", blockingCalls.recent());
+        return result;
+    }
+}
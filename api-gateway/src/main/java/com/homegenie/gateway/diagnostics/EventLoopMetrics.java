@@ -0,0 +1,117 @@
+package com.homegenie.gateway.diagnostics;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.SingleThreadEventLoop;
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.SingleThreadEventExecutor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.netty.http.HttpResources;
+import reactor.netty.resources.LoopResources;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Saturation of the Reactor Netty event loops shared by the gateway's server
+ * and its upstream clients, per loop:
+ * <ul>
+ *   <li>{@code gateway.eventloop.pending.tasks} - tasks queued and not yet run</li>
+ *   <li>{@code gateway.eventloop.registered.channels} - connections served by the loop</li>
+ *   <li>{@code gateway.eventloop.task.delay} - how long a probe task submitted
+ *       every {@code probe-interval} waited before it ran; it grows as soon as a
+ *       loop is kept busy, blocked or not</li>
+ * </ul>
+ */
+@Component
+@Slf4j
+public class EventLoopMetrics {
+
+    private final List<Loop> loops = new ArrayList<>();
+
+    public EventLoopMetrics(MeterRegistry meterRegistry) {
+        EventLoopGroup group = HttpResources.get().onServer(LoopResources.DEFAULT_NATIVE);
+        int index = 0;
+        for (EventExecutor executor : group) {
+            String name = "loop-" + index++;
+            Loop loop = new Loop(name, executor, Timer.builder("gateway.eventloop.task.delay")
+                    .description("Time a probe task waited in an event loop's queue")
+                    .tag("loop", name)
+                    .publishPercentiles(0.5, 0.99)
+                    .register(meterRegistry));
+            Gauge.builder("gateway.eventloop.pending.tasks", loop, Loop::pendingTasks)
+                    .description("Tasks waiting to run on an event loop")
+                    .tag("loop", name)
+                    .register(meterRegistry);
+            Gauge.builder("gateway.eventloop.registered.channels", loop, Loop::registeredChannels)
+                    .description("Channels registered with an event loop")
+                    .tag("loop", name)
+                    .register(meterRegistry);
+            loops.add(loop);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${gateway.diagnostics.event-loop.probe-interval:5000}")
+    public void probe() {
+        for (Loop loop : loops) {
+            long submitted = System.nanoTime();
+            try {
+                loop.executor().execute(() -> loop.recordDelay(System.nanoTime() - submitted));
+            } catch (RejectedExecutionException e) {
+                log.debug("Event loop {} is shutting down", loop.name());
+            }
+        }
+    }
+
+    /**
+     * Current figures per loop, for the actuator endpoint.
+     */
+    public List<Map<String, Object>> snapshot() {
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (Loop loop : loops) {
+            Map<String, Object> values = new LinkedHashMap<>();
+            values.put("loop", loop.name());
+            values.put("pendingTasks", (long) loop.pendingTasks());
+            values.put("registeredChannels", (long) loop.registeredChannels());
+            values.put("lastTaskDelayMs", loop.lastDelay().toNanos() / 1_000_000.0);
+            values.put("maxTaskDelayMs", loop.delay().max(TimeUnit.MILLISECONDS));
+            result.add(values);
+        }
+        return result;
+    }
+
+    private record Loop(String name, EventExecutor executor, Timer delay, AtomicLong lastDelayNanos) {
+
+        Loop(String name, EventExecutor executor, Timer delay) {
+            this(name, executor, delay, new AtomicLong());
+        }
+
+        void recordDelay(long nanos) {
+            lastDelayNanos.set(nanos);
+            delay.record(nanos, TimeUnit.NANOSECONDS);
+        }
+
+        Duration lastDelay() {
+            return Duration.ofNanos(lastDelayNanos.get());
+        }
+
+        double pendingTasks() {
+            return executor instanceof SingleThreadEventExecutor loop ? loop.pendingTasks() : Double.NaN;
+        }
+
+        double registeredChannels() {
+            // -1 where the transport doesn't track it
+            return executor instanceof SingleThreadEventLoop loop ? loop.registeredChannels() : Double.NaN;
+        }
+    }
+}
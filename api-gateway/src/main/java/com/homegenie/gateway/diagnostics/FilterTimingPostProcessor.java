@@ -0,0 +1,89 @@
+package com.homegenie.gateway.diagnostics;
+
+import lombok.extern.slf4j.Slf4j;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Wraps every {@link GlobalFilter} bean, ours and SCG's, in a class-based
+ * proxy that reports to {@link FilterTimings}. Class proxies keep the bean's
+ * type, so anything injecting e.g. the routing filter by class still works,
+ * and {@code getOrder()} still reaches the target.
+ */
+@Component
+@ConditionalOnProperty(name = "gateway.diagnostics.filter-timing.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class FilterTimingPostProcessor implements BeanPostProcessor {
+
+    // Looked up lazily: post-processors are created before ordinary beans
+    private final ObjectProvider<FilterTimings> filterTimings;
+
+    public FilterTimingPostProcessor(ObjectProvider<FilterTimings> filterTimings) {
+        this.filterTimings = filterTimings;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof GlobalFilter) || AopUtils.isAopProxy(bean)) {
+            return bean;
+        }
+        String filterName = ClassUtils.getUserClass(bean).getSimpleName();
+        try {
+            ProxyFactory proxyFactory = new ProxyFactory(bean);
+            proxyFactory.setProxyTargetClass(true);
+            proxyFactory.addAdvice(new TimingInterceptor(filterName));
+            return proxyFactory.getProxy(ClassUtils.getDefaultClassLoader());
+        } catch (RuntimeException e) {
+            log.warn("Cannot time global filter {}: {}", beanName, e.getMessage());
+            return bean;
+        }
+    }
+
+    private class TimingInterceptor implements MethodInterceptor {
+
+        private final String filterName;
+
+        TimingInterceptor(String filterName) {
+            this.filterName = filterName;
+        }
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            Object[] arguments = invocation.getArguments();
+            if (!"filter".equals(invocation.getMethod().getName()) || arguments.length != 2
+                    || !(arguments[1] instanceof GatewayFilterChain chain)) {
+                return invocation.proceed();
+            }
+
+            FilterTimings timings = filterTimings.getObject();
+            long start = System.nanoTime();
+            AtomicBoolean recorded = new AtomicBoolean();
+            // The interval ends when the filter calls the rest of the chain, so downstream time isn't counted
+            arguments[1] = (GatewayFilterChain) exchange -> {
+                if (recorded.compareAndSet(false, true)) {
+                    timings.record(filterName, System.nanoTime() - start);
+                }
+                return chain.filter(exchange);
+            };
+
+            Mono<?> result = (Mono<?>) invocation.proceed();
+            return result.doFinally(signal -> {
+                if (recorded.compareAndSet(false, true)) {
+                    timings.record(filterName, System.nanoTime() - start);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.homegenie.gateway.diagnostics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code gateway.filter.duration}: time each global filter holds an exchange
+ * before handing it to the next filter, or until it finishes if it answers
+ * the request itself. Recorded by {@link FilterTimingPostProcessor}.
+ */
+@Component
+public class FilterTimings {
+
+    private static final double[] PERCENTILES = {0.5, 0.99};
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    public FilterTimings(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public void record(String filter, long nanos) {
+        timers.computeIfAbsent(filter, name -> Timer.builder("gateway.filter.duration")
+                        .description("Time a global filter spends on an exchange before passing it on")
+                        .tag("filter", name)
+                        .publishPercentiles(PERCENTILES)
+                        .minimumExpectedValue(Duration.ofNanos(1_000))
+                        .maximumExpectedValue(Duration.ofSeconds(30))
+                        .register(meterRegistry))
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Count, mean, max and percentiles in milliseconds per filter, for the actuator endpoint.
+     */
+    public Map<String, Map<String, Object>> snapshot() {
+        Map<String, Map<String, Object>> result = new TreeMap<>();
+        timers.forEach((name, timer) -> {
+            HistogramSnapshot snapshot = timer.takeSnapshot();
+            Map<String, Object> values = new LinkedHashMap<>();
+            values.put("count", snapshot.count());
+            values.put("meanMs", snapshot.mean(TimeUnit.MILLISECONDS));
+            values.put("maxMs", snapshot.max(TimeUnit.MILLISECONDS));
+            for (ValueAtPercentile percentile : snapshot.percentileValues()) {
+                values.put("p" + Math.round(percentile.percentile() * 100) + "Ms",
+                        percentile.value(TimeUnit.MILLISECONDS));
+            }
+            result.put(name, values);
+        });
+        return result;
+    }
+}
@@ -0,0 +1,70 @@
+package com.homegenie.gateway.filter;
+
+import com.homegenie.gateway.concurrency.AdaptiveLimit;
+import com.homegenie.gateway.concurrency.ConcurrencyLimiter;
+import com.homegenie.gateway.concurrency.RequestPriority;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Admission control in front of every route. Requests beyond their priority's
+ * share of the route's adaptive limit get 503 with {@code Retry-After};
+ * admitted requests feed their upstream latency back into the limit.
+ * Runs after {@link JwtAuthenticationFilter} so the caller's role is known.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class AdaptiveConcurrencyFilter implements GlobalFilter, Ordered {
+
+    private final ConcurrencyLimiter concurrencyLimiter;
+
+    @Value("${gateway.concurrency.enabled:true}")
+    private boolean enabled;
+
+    @Value("${gateway.concurrency.retry-after-seconds:1}")
+    private int retryAfterSeconds;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (!enabled) {
+            return chain.filter(exchange);
+        }
+        String routeId = RouteMetricsFilter.routeId(exchange);
+        AdaptiveLimit limit = concurrencyLimiter.limitFor(routeId);
+        RequestPriority priority = concurrencyLimiter.classify(exchange.getRequest());
+
+        if (!limit.tryAcquire(priority)) {
+            concurrencyLimiter.recordRejection(routeId, priority);
+            log.debug("Shedding {} request to {} (limit {}, in flight {})",
+                    priority, routeId, limit.getLimit(), limit.getInFlight());
+            exchange.getResponse().setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+            exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+            return exchange.getResponse().setComplete();
+        }
+
+        int inFlightAtStart = limit.getInFlight();
+        return chain.filter(exchange)
+                .doFinally(signal -> {
+                    limit.release();
+                    Long upstreamNanos = exchange.getAttribute(UpstreamTimingFilter.UPSTREAM_NANOS_ATTR);
+                    if (upstreamNanos != null) {
+                        limit.onSample(upstreamNanos, inFlightAtStart);
+                    }
+                });
+    }
+
+    @Override
+    public int getOrder() {
+        return -90;
+    }
+}
@@ -0,0 +1,254 @@
+package com.homegenie.gateway.filter;
+
+import com.homegenie.gateway.security.InternalIdentitySigner;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Answers a route itself by calling several downstream endpoints concurrently
+ * and merging their JSON bodies into one document keyed by part name:
+ * <pre>
+ * filters:
+ *   - name: Aggregate
+ *     args:
+ *       parts:
+ *         profile:
+ *           uri: http://user-service/api/users/me
+ *           timeout: 2s
+ *           required: true
+ *         statistics:
+ *           uri: http://maintenance-service/api/maintenance/statistics
+ *           roles: ADMIN
+ * </pre>
+ * {@code {userId}}, {@code {userRole}} and {@code {userEmail}} in a part URI
+ * are filled from the identity headers set by {@link JwtAuthenticationFilter},
+ * which are forwarded along with {@code Authorization} and the signed
+ * {@value InternalIdentitySigner#HEADER}. A failed or timed out
+ * optional part is returned as null and listed under {@code errors}; a failed
+ * required part fails the whole response with 502 (504 on timeout). Parts
+ * restricted by {@code roles} are omitted for other callers.
+ */
+@Component
+@Slf4j
+public class AggregateGatewayFilterFactory extends AbstractGatewayFilterFactory<AggregateGatewayFilterFactory.Config> {
+
+    private static final List<String> FORWARDED_HEADERS = List.of(
+            HttpHeaders.AUTHORIZATION, "X-User-Id", "X-User-Role", "X-User-Email", InternalIdentitySigner.HEADER);
+
+    private final WebClient webClient;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    public AggregateGatewayFilterFactory(WebClient.Builder webClientBuilder, ObjectMapper objectMapper,
+                                         MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.webClient = webClientBuilder.build();
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        return (exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            String role = request.getHeaders().getFirst("X-User-Role");
+
+            List<Mono<PartResult>> calls = new ArrayList<>();
+            config.getParts().forEach((name, part) -> {
+                if (part.getRoles().isEmpty() || part.getRoles().contains(role)) {
+                    calls.add(fetch(name, part, request));
+                }
+            });
+
+            return Flux.merge(calls)
+                    .collectList()
+                    .flatMap(results -> write(exchange.getResponse(), config, results));
+        };
+    }
+
+    private Mono<PartResult> fetch(String name, Part part, ServerHttpRequest request) {
+        HttpHeaders incoming = request.getHeaders();
+        Map<String, String> variables = Map.of(
+                "userId", valueOrEmpty(incoming.getFirst("X-User-Id")),
+                "userRole", valueOrEmpty(incoming.getFirst("X-User-Role")),
+                "userEmail", valueOrEmpty(incoming.getFirst("X-User-Email")));
+        long start = System.nanoTime();
+
+        return webClient.get()
+                .uri(part.getUri(), variables)
+                .headers(headers -> FORWARDED_HEADERS.forEach(header -> {
+                    String value = incoming.getFirst(header);
+                    if (value != null) {
+                        headers.set(header, value);
+                    }
+                }))
+                .accept(MediaType.APPLICATION_JSON)
+                .retrieve()
+                .bodyToMono(JsonNode.class)
+                .timeout(part.getTimeout())
+                .map(body -> PartResult.success(name, part, body))
+                .onErrorResume(e -> Mono.just(PartResult.failure(name, part, e)))
+                .doOnNext(result -> Timer.builder("gateway.aggregate.part")
+                        .description("Latency of one part of an aggregated response")
+                        .tag("part", name)
+                        .tag("outcome", result.error() == null ? "SUCCESS" : "FAILURE")
+                        .register(meterRegistry)
+                        .record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+    }
+
+    private Mono<Void> write(ServerHttpResponse response, Config config, List<PartResult> results) {
+        ObjectNode document = objectMapper.createObjectNode();
+        ObjectNode errors = objectMapper.createObjectNode();
+        PartResult failedRequired = null;
+
+        // Keep the configured part order rather than completion order
+        Map<String, PartResult> byName = new LinkedHashMap<>();
+        results.forEach(result -> byName.put(result.name(), result));
+        for (String name : config.getParts().keySet()) {
+            PartResult result = byName.get(name);
+            if (result == null) {
+                continue;
+            }
+            document.set(name, result.body());
+            if (result.error() != null) {
+                errors.put(name, describe(result.error()));
+                log.warn("Aggregate part {} failed: {}", name, result.error().getMessage());
+                if (result.part().isRequired() && failedRequired == null) {
+                    failedRequired = result;
+                }
+            }
+        }
+        if (!errors.isEmpty()) {
+            document.set("errors", errors);
+        }
+
+        if (failedRequired != null) {
+            response.setStatusCode(failedRequired.error() instanceof TimeoutException
+                    ? HttpStatus.GATEWAY_TIMEOUT : HttpStatus.BAD_GATEWAY);
+        } else {
+            response.setStatusCode(HttpStatus.OK);
+        }
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        response.getHeaders().setCacheControl("no-store");
+
+        byte[] bytes;
+        try {
+            bytes = objectMapper.writeValueAsBytes(document);
+        } catch (JsonProcessingException e) {
+            return Mono.error(e);
+        }
+        response.getHeaders().setContentLength(bytes.length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(bytes)));
+    }
+
+    private static String describe(Throwable error) {
+        if (error instanceof TimeoutException) {
+            return "timeout";
+        }
+        if (error instanceof WebClientResponseException responseException) {
+            return "status " + responseException.getStatusCode().value();
+        }
+        return "unavailable";
+    }
+
+    private static String valueOrEmpty(String value) {
+        return value != null ? value : "";
+    }
+
+    private record PartResult(String name, Part part, JsonNode body, Throwable error) {
+
+        static PartResult success(String name, Part part, JsonNode body) {
+            return new PartResult(name, part, body, null);
+        }
+
+        static PartResult failure(String name, Part part, Throwable error) {
+            return new PartResult(name, part, null, error);
+        }
+    }
+
+    public static class Config {
+
+        private Map<String, Part> parts = new LinkedHashMap<>();
+
+        public Map<String, Part> getParts() {
+            return parts;
+        }
+
+        public Config setParts(Map<String, Part> parts) {
+            this.parts = parts;
+            return this;
+        }
+    }
+
+    public static class Part {
+
+        private String uri;
+
+        private Duration timeout = Duration.ofSeconds(3);
+
+        private boolean required = false;
+
+        private List<String> roles = new ArrayList<>();
+
+        public String getUri() {
+            return uri;
+        }
+
+        public Part setUri(String uri) {
+            this.uri = uri;
+            return this;
+        }
+
+        public Duration getTimeout() {
+            return timeout;
+        }
+
+        public Part setTimeout(Duration timeout) {
+            this.timeout = timeout;
+            return this;
+        }
+
+        public boolean isRequired() {
+            return required;
+        }
+
+        public Part setRequired(boolean required) {
+            this.required = required;
+            return this;
+        }
+
+        public List<String> getRoles() {
+            return roles;
+        }
+
+        public Part setRoles(List<String> roles) {
+            this.roles = roles;
+            return this;
+        }
+    }
+}
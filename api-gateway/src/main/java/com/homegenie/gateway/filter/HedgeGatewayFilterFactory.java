@@ -0,0 +1,265 @@
+package com.homegenie.gateway.filter;
+
+import com.homegenie.gateway.client.RouteHttpClients;
+import com.homegenie.gateway.metrics.RouteMetrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.RouteToRequestUrlFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hedged GETs: if the first upstream attempt has not returned response
+ * headers after the route's {@code percentile} upstream latency, a second
+ * attempt is sent on a separate connection from the route's pool; whichever
+ * answers first is streamed to the client and the other is cancelled.
+ * <pre>
+ * filters:
+ *   - name: Hedge
+ *     args:
+ *       paths: /api/users/*
+ *       percentile: 0.95
+ *       max-ratio: 0.05
+ * </pre>
+ * The percentile is refreshed about once a second by {@link RouteMetrics};
+ * until the route has {@code minSamples} successful calls, {@code delay} is
+ * used. Each request earns {@code maxRatio} of a hedge, so hedges stay under
+ * that share of traffic apart from a small burst. Only use on idempotent
+ * endpoints. Runs in place of the routing filter, so it records the route's
+ * upstream timing itself.
+ */
+@Component
+public class HedgeGatewayFilterFactory extends AbstractGatewayFilterFactory<HedgeGatewayFilterFactory.Config> {
+
+    private static final long MILLI_TOKENS = 1000;
+    private static final long MAX_BUDGET = 10 * MILLI_TOKENS;
+
+    private final RouteHttpClients routeHttpClients;
+    private final RouteMetrics routeMetrics;
+    private final HttpClientProperties httpClientProperties;
+    private final ObjectProvider<List<HttpHeadersFilter>> headersFiltersProvider;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, RouteWebClient> webClients = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> budgets = new ConcurrentHashMap<>();
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+    public HedgeGatewayFilterFactory(RouteHttpClients routeHttpClients, RouteMetrics routeMetrics,
+                                     HttpClientProperties httpClientProperties,
+                                     ObjectProvider<List<HttpHeadersFilter>> headersFiltersProvider,
+                                     MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.routeHttpClients = routeHttpClients;
+        this.routeMetrics = routeMetrics;
+        this.httpClientProperties = httpClientProperties;
+        this.headersFiltersProvider = headersFiltersProvider;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        List<PathPattern> patterns = config.compilePaths();
+
+        GatewayFilter filter = (exchange, chain) -> {
+            Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+            URI url = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR);
+            PathContainer path = exchange.getRequest().getPath().pathWithinApplication();
+            if (route == null || url == null || exchange.getRequest().getMethod() != HttpMethod.GET
+                    || ServerWebExchangeUtils.isAlreadyRouted(exchange)
+                    || (!patterns.isEmpty() && patterns.stream().noneMatch(pattern -> pattern.matches(path)))) {
+                return chain.filter(exchange);
+            }
+            ServerWebExchangeUtils.setAlreadyRouted(exchange);
+            return hedge(exchange, route, url, config);
+        };
+        // After RouteToRequestUrlFilter has resolved the upstream URL
+        return new OrderedGatewayFilter(filter, RouteToRequestUrlFilter.ROUTE_TO_URL_FILTER_ORDER + 1);
+    }
+
+    private Mono<Void> hedge(ServerWebExchange exchange, Route route, URI url, Config config) {
+        String routeId = route.getId();
+        AtomicLong budget = budgets.computeIfAbsent(routeId, id -> new AtomicLong(MAX_BUDGET));
+        budget.getAndUpdate(balance -> Math.min(MAX_BUDGET, balance + Math.round(config.getMaxRatio() * MILLI_TOKENS)));
+
+        WebClient webClient = webClient(route);
+        HttpHeaders headers = new HttpHeaders();
+        headers.addAll(HttpHeadersFilter.filterRequest(headersFiltersProvider.getIfAvailable(), exchange));
+        // As NettyRoutingFilter does: the upstream gets its own Host unless the route preserves ours
+        if (!exchange.getAttributeOrDefault(ServerWebExchangeUtils.PRESERVE_HOST_HEADER_ATTRIBUTE, false)) {
+            headers.remove(HttpHeaders.HOST);
+        }
+        Duration observed = routeMetrics.upstreamPercentile(routeId, config.getPercentile(), config.getMinSamples());
+        Duration delay = observed != null ? observed : config.getDelay();
+        long start = System.nanoTime();
+
+        Mono<Attempt> primary = attempt(webClient, url, headers, false);
+        Mono<Attempt> hedged = Mono.delay(delay)
+                .flatMap(tick -> {
+                    if (budget.getAndUpdate(balance -> balance >= MILLI_TOKENS ? balance - MILLI_TOKENS : balance)
+                            < MILLI_TOKENS) {
+                        count(routeId, "budget_exhausted");
+                        return Mono.empty();
+                    }
+                    count(routeId, "hedged");
+                    return attempt(webClient, url, headers, true);
+                });
+
+        return Mono.firstWithValue(primary, hedged)
+                .flatMap(winner -> {
+                    ResponseEntity<Flux<DataBuffer>> entity = winner.entity();
+                    long upstreamNanos = System.nanoTime() - start;
+                    exchange.getAttributes().put(UpstreamTimingFilter.UPSTREAM_NANOS_ATTR, upstreamNanos);
+                    routeMetrics.recordUpstream(routeId, RouteMetricsFilter.outcome(entity.getStatusCode()),
+                            upstreamNanos);
+                    count(routeId, winner.hedge() ? "hedge_win" : "primary_win");
+                    return write(exchange, entity);
+                });
+    }
+
+    private Mono<Attempt> attempt(WebClient webClient, URI url, HttpHeaders headers, boolean hedge) {
+        Mono<ResponseEntity<Flux<DataBuffer>>> call = webClient.get()
+                .uri(url)
+                .headers(target -> target.addAll(headers))
+                .retrieve()
+                // Pass upstream errors through like the routing filter does
+                .onStatus(HttpStatusCode::isError, response -> Mono.empty())
+                .toEntityFlux(DataBuffer.class);
+        Duration responseTimeout = httpClientProperties.getResponseTimeout();
+        if (responseTimeout != null) {
+            call = call.timeout(responseTimeout);
+        }
+        return call.map(entity -> new Attempt(entity, hedge));
+    }
+
+    private Mono<Void> write(ServerWebExchange exchange, ResponseEntity<Flux<DataBuffer>> entity) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(entity.getStatusCode());
+        HttpHeaders filtered = HttpHeadersFilter.filter(headersFiltersProvider.getIfAvailable(),
+                entity.getHeaders(), exchange, HttpHeadersFilter.Type.RESPONSE);
+        response.getHeaders().putAll(filtered);
+        return entity.getBody() != null ? response.writeWith(entity.getBody()) : response.setComplete();
+    }
+
+    private WebClient webClient(Route route) {
+        HttpClient httpClient = routeHttpClients.clientFor(route);
+        RouteWebClient current = webClients.get(route.getId());
+        if (current != null && current.httpClient() == httpClient) {
+            return current.webClient();
+        }
+        return webClients.compute(route.getId(), (id, existing) -> existing != null && existing.httpClient() == httpClient
+                ? existing
+                : new RouteWebClient(httpClient, WebClient.builder()
+                        .clientConnector(new ReactorClientHttpConnector(httpClient))
+                        .build()))
+                .webClient();
+    }
+
+    private void count(String routeId, String result) {
+        counters.computeIfAbsent(routeId + '|' + result, key -> Counter.builder("gateway.hedge.requests")
+                        .description("Hedging decisions and winners for hedged GETs")
+                        .tag("routeId", routeId)
+                        .tag("result", result)
+                        .register(meterRegistry))
+                .increment();
+    }
+
+    private record Attempt(ResponseEntity<Flux<DataBuffer>> entity, boolean hedge) {
+    }
+
+    private record RouteWebClient(HttpClient httpClient, WebClient webClient) {
+    }
+
+    public static class Config {
+
+        private List<String> paths = new ArrayList<>();
+
+        private double percentile = 0.95;
+
+        private Duration delay = Duration.ofMillis(200);
+
+        private long minSamples = 100;
+
+        private double maxRatio = 0.05;
+
+        public List<String> getPaths() {
+            return paths;
+        }
+
+        public Config setPaths(List<String> paths) {
+            this.paths = paths;
+            return this;
+        }
+
+        public double getPercentile() {
+            return percentile;
+        }
+
+        public Config setPercentile(double percentile) {
+            this.percentile = percentile;
+            return this;
+        }
+
+        public Duration getDelay() {
+            return delay;
+        }
+
+        public Config setDelay(Duration delay) {
+            this.delay = delay;
+            return this;
+        }
+
+        public long getMinSamples() {
+            return minSamples;
+        }
+
+        public Config setMinSamples(long minSamples) {
+            this.minSamples = minSamples;
+            return this;
+        }
+
+        public double getMaxRatio() {
+            return maxRatio;
+        }
+
+        public Config setMaxRatio(double maxRatio) {
+            this.maxRatio = maxRatio;
+            return this;
+        }
+
+        List<PathPattern> compilePaths() {
+            return paths.stream()
+                    .map(String::trim)
+                    .map(PathPatternParser.defaultInstance::parse)
+                    .toList();
+        }
+    }
+}
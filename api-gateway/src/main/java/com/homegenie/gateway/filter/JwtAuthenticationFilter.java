@@ -1,10 +1,11 @@
 package com.homegenie.gateway.filter;
 
-import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.security.Keys;
+import com.homegenie.gateway.security.InternalIdentitySigner;
+import com.homegenie.gateway.security.TokenRevocations;
+import com.homegenie.gateway.security.TokenVerifier;
+import com.homegenie.gateway.security.VerifiedToken;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.GlobalFilter;
 import org.springframework.core.Ordered;
@@ -16,16 +17,26 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
-import javax.crypto.SecretKey;
-import java.nio.charset.StandardCharsets;
 import java.util.List;
 
+/**
+ * Verifies bearer tokens and passes the caller's identity on as
+ * {@code X-User-*} headers plus the signed {@value InternalIdentitySigner#HEADER}
+ * that services check instead of the JWT. Identity headers sent by clients are
+ * always dropped. Public paths don't require a token, but a valid one still
+ * gets its identity forwarded.
+ */
 @Component
 @Slf4j
+@RequiredArgsConstructor
 public class JwtAuthenticationFilter implements GlobalFilter, Ordered {
 
-    @Value("${jwt.secret:homegenie-secret-key-change-in-production-minimum-32-chars}")
-    private String jwtSecret;
+    private final TokenVerifier tokenVerifier;
+    private final TokenRevocations tokenRevocations;
+    private final InternalIdentitySigner identitySigner;
+
+    private static final List<String> IDENTITY_HEADERS = List.of(
+            "X-User-Id", "X-User-Role", "X-User-Email", InternalIdentitySigner.HEADER);
 
     private static final List<String> PUBLIC_PATHS = List.of(
             "/api/auth",
@@ -44,17 +55,13 @@ public class JwtAuthenticationFilter implements GlobalFilter, Ordered {
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
         String path = exchange.getRequest().getPath().value();
+        String authHeader = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        ServerWebExchange stripped = withoutIdentityHeaders(exchange);
 
-        if (isPublicPath(path)) {
-            return chain.filter(exchange);
-        }
-
-        if (exchange.getRequest().getMethod() == HttpMethod.OPTIONS) {
-            return chain.filter(exchange);
+        if (isPublicPath(path) || exchange.getRequest().getMethod() == HttpMethod.OPTIONS) {
+            return forwardOptionalIdentity(stripped, chain, authHeader);
         }
 
-        String authHeader = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
-
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             log.warn("Missing or invalid Authorization header for path: {}", path);
             exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
@@ -63,36 +70,82 @@ public class JwtAuthenticationFilter implements GlobalFilter, Ordered {
 
         String token = authHeader.substring(7);
 
+        VerifiedToken verified;
         try {
-            SecretKey key = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
-            Claims claims = Jwts.parser()
-                    .verifyWith(key)
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
-
-            Object userIdClaim = claims.get("userId");
-            String userId = userIdClaim != null ? String.valueOf(userIdClaim) : "";
-            String role = claims.get("role", String.class);
-            String email = claims.getSubject();
-
-            ServerHttpRequest modifiedRequest = exchange.getRequest().mutate()
-                    .header("X-User-Id", userId != null ? userId : "")
-                    .header("X-User-Role", role != null ? role : "")
-                    .header("X-User-Email", email != null ? email : "")
-                    .build();
-
-            log.debug("JWT validated for user: {}, role: {}", email, role);
-            return chain.filter(exchange.mutate().request(modifiedRequest).build());
-
+            verified = tokenVerifier.verify(token);
         } catch (Exception e) {
             log.warn("JWT validation failed: {}", e.getMessage());
             exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
             return exchange.getResponse().setComplete();
         }
+
+        return tokenRevocations.isRevoked(verified).flatMap(revoked -> {
+            if (revoked) {
+                log.warn("Rejected revoked token for user: {}", verified.email());
+                exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
+                return exchange.getResponse().setComplete();
+            }
+
+            log.debug("JWT validated for user: {}, role: {}", verified.email(), verified.role());
+            return chain.filter(withIdentity(stripped, verified));
+        });
+    }
+
+    /**
+     * Public paths pass with or without a token; a valid, unrevoked one still
+     * identifies the caller so e.g. {@code /api/users/me} needn't parse it again.
+     * A revoked one is dropped so services can't fall back to trusting it.
+     */
+    private Mono<Void> forwardOptionalIdentity(ServerWebExchange exchange, GatewayFilterChain chain,
+                                               String authHeader) {
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return chain.filter(exchange);
+        }
+        VerifiedToken verified;
+        try {
+            verified = tokenVerifier.verify(authHeader.substring(7));
+        } catch (Exception e) {
+            return chain.filter(exchange);
+        }
+        return tokenRevocations.isRevoked(verified)
+                .flatMap(revoked -> chain.filter(revoked
+                        ? withoutAuthorization(exchange)
+                        : withIdentity(exchange, verified)));
+    }
+
+    private ServerWebExchange withIdentity(ServerWebExchange exchange, VerifiedToken verified) {
+        String userId = verified.userId();
+        String role = verified.role();
+        String email = verified.email();
+
+        ServerHttpRequest modifiedRequest = exchange.getRequest().mutate()
+                .header("X-User-Id", userId != null ? userId : "")
+                .header("X-User-Role", role != null ? role : "")
+                .header("X-User-Email", email != null ? email : "")
+                .header(InternalIdentitySigner.HEADER, identitySigner.sign(verified))
+                .build();
+        return exchange.mutate().request(modifiedRequest).build();
+    }
+
+    private static ServerWebExchange withoutAuthorization(ServerWebExchange exchange) {
+        ServerHttpRequest stripped = exchange.getRequest().mutate()
+                .headers(mutable -> mutable.remove(HttpHeaders.AUTHORIZATION))
+                .build();
+        return exchange.mutate().request(stripped).build();
+    }
+
+    private static ServerWebExchange withoutIdentityHeaders(ServerWebExchange exchange) {
+        HttpHeaders headers = exchange.getRequest().getHeaders();
+        if (IDENTITY_HEADERS.stream().noneMatch(headers::containsKey)) {
+            return exchange;
+        }
+        ServerHttpRequest stripped = exchange.getRequest().mutate()
+                .headers(mutable -> IDENTITY_HEADERS.forEach(mutable::remove))
+                .build();
+        return exchange.mutate().request(stripped).build();
     }
 
-    private boolean isPublicPath(String path) {
+    static boolean isPublicPath(String path) {
         return PUBLIC_PATHS.stream().anyMatch(path::startsWith);
     }
 
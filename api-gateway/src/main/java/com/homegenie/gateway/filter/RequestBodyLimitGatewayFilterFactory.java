@@ -0,0 +1,97 @@
+package com.homegenie.gateway.filter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caps request bodies on a route without buffering them. A declared
+ * {@code Content-Length} over {@code maxSize} is answered with 413 before any
+ * of the body is read (and before {@code 100 Continue} is sent). Chunked bodies
+ * are counted as they stream to the upstream and the exchange is aborted with
+ * 413 as soon as the limit is crossed.
+ * <pre>
+ * filters:
+ *   - name: RequestBodyLimit
+ *     args:
+ *       max-size: 10MB
+ * </pre>
+ */
+@Component
+public class RequestBodyLimitGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<RequestBodyLimitGatewayFilterFactory.Config> {
+
+    private final Counter rejectedCounter;
+
+    public RequestBodyLimitGatewayFilterFactory(MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.rejectedCounter = Counter.builder("gateway.request.body.rejected")
+                .description("Requests rejected for exceeding a route's body size limit")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        long maxBytes = config.getMaxSize().toBytes();
+
+        return (exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            long contentLength = request.getHeaders().getContentLength();
+            if (contentLength > maxBytes) {
+                rejectedCounter.increment();
+                exchange.getResponse().setStatusCode(HttpStatus.PAYLOAD_TOO_LARGE);
+                // The unread body is discarded with the connection
+                exchange.getResponse().getHeaders().set(HttpHeaders.CONNECTION, "close");
+                return exchange.getResponse().setComplete();
+            }
+            if (contentLength >= 0) {
+                return chain.filter(exchange);
+            }
+
+            ServerHttpRequest limited = new ServerHttpRequestDecorator(request) {
+                @Override
+                public Flux<DataBuffer> getBody() {
+                    AtomicLong received = new AtomicLong();
+                    return super.getBody().handle((buffer, sink) -> {
+                        if (received.addAndGet(buffer.readableByteCount()) > maxBytes) {
+                            DataBufferUtils.release(buffer);
+                            rejectedCounter.increment();
+                            sink.error(new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                                    "Request body exceeds " + config.getMaxSize()));
+                        } else {
+                            sink.next(buffer);
+                        }
+                    });
+                }
+            };
+            return chain.filter(exchange.mutate().request(limited).build());
+        };
+    }
+
+    public static class Config {
+
+        private DataSize maxSize = DataSize.ofMegabytes(10);
+
+        public DataSize getMaxSize() {
+            return maxSize;
+        }
+
+        public Config setMaxSize(DataSize maxSize) {
+            this.maxSize = maxSize;
+            return this;
+        }
+    }
+}
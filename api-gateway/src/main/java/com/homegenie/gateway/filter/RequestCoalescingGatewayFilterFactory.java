@@ -0,0 +1,250 @@
+package com.homegenie.gateway.filter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Single-flight for identical GETs: while one request for a route, path, query
+ * and {@link RequestScope} is in flight upstream, further identical requests
+ * wait for it and receive a copy of its buffered response instead of opening
+ * their own upstream exchange.
+ * <pre>
+ * filters:
+ *   - name: RequestCoalescing
+ *     args:
+ *       paths: /api/maintenance/**
+ *       scope: USER
+ * </pre>
+ * If the leading request fails, is cancelled, returns a body larger than
+ * {@code maxBodySize}, sets a cookie or takes longer than {@code maxWait},
+ * waiting requests fall back to calling upstream themselves.
+ * Like {@link ResponseCacheGatewayFilterFactory} the filter runs just ahead of
+ * {@link NettyWriteResponseFilter}, so waiting requests skip the route's other filters.
+ */
+@Component
+public class RequestCoalescingGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<RequestCoalescingGatewayFilterFactory.Config> {
+
+    private final Map<String, Sinks.One<SharedResponse>> inFlight = new ConcurrentHashMap<>();
+    private final Counter leaderCounter;
+    private final Counter followerCounter;
+    private final Counter fallbackCounter;
+
+    public RequestCoalescingGatewayFilterFactory(MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.leaderCounter = requestCounter(meterRegistry, "leader");
+        this.followerCounter = requestCounter(meterRegistry, "follower");
+        this.fallbackCounter = requestCounter(meterRegistry, "fallback");
+        Gauge.builder("gateway.coalescing.in.flight", inFlight, Map::size)
+                .description("Distinct upstream GETs currently shared by coalesced requests")
+                .register(meterRegistry);
+        Gauge.builder("gateway.coalescing.ratio", this, RequestCoalescingGatewayFilterFactory::coalescingRatio)
+                .description("Share of coalescable requests served from another request's upstream call")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        List<PathPattern> patterns = config.compilePaths();
+        long maxBodyBytes = config.getMaxBodySize().toBytes();
+
+        GatewayFilter filter = (exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            if (request.getMethod() != HttpMethod.GET) {
+                return chain.filter(exchange);
+            }
+            PathContainer path = request.getPath().pathWithinApplication();
+            if (!patterns.isEmpty() && patterns.stream().noneMatch(pattern -> pattern.matches(path))) {
+                return chain.filter(exchange);
+            }
+
+            Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+            String key = config.getScope().requestKey(route != null ? route.getId() : "", request);
+            if (key == null) {
+                return chain.filter(exchange);
+            }
+
+            Sinks.One<SharedResponse> sink = Sinks.one();
+            Sinks.One<SharedResponse> existing = inFlight.putIfAbsent(key, sink);
+
+            if (existing != null) {
+                return existing.asMono()
+                        .timeout(config.getMaxWait(), Mono.empty())
+                        .flatMap(shared -> {
+                            followerCounter.increment();
+                            return write(exchange.getResponse(), shared);
+                        })
+                        .switchIfEmpty(Mono.defer(() -> {
+                            fallbackCounter.increment();
+                            return chain.filter(exchange);
+                        }));
+            }
+
+            leaderCounter.increment();
+            ServerHttpResponse decorated = new SharingResponseDecorator(exchange.getResponse(), sink, maxBodyBytes);
+            return chain.filter(exchange.mutate().response(decorated).build())
+                    .doFinally(signal -> {
+                        inFlight.remove(key, sink);
+                        // No-op if the body was already shared; otherwise release waiters to go upstream
+                        sink.tryEmitEmpty();
+                    });
+        };
+        // Ahead of NettyWriteResponseFilter, or the leader's body never passes through the sharing decorator
+        return new OrderedGatewayFilter(filter, NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1);
+    }
+
+    private Mono<Void> write(ServerHttpResponse response, SharedResponse shared) {
+        response.setStatusCode(shared.status());
+        shared.headers().forEach((name, values) -> response.getHeaders().put(name, new ArrayList<>(values)));
+        response.getHeaders().setContentLength(shared.body().length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(shared.body())));
+    }
+
+    private double coalescingRatio() {
+        double followers = followerCounter.count();
+        double total = followers + leaderCounter.count() + fallbackCounter.count();
+        return total == 0 ? 0 : followers / total;
+    }
+
+    private static boolean isPerRequestHeader(String name) {
+        String lower = name.toLowerCase();
+        return lower.startsWith("access-control-")
+                || lower.startsWith("x-ratelimit-")
+                || lower.equals("content-length")
+                || lower.equals("transfer-encoding")
+                || lower.equals("connection");
+    }
+
+    private static Counter requestCounter(MeterRegistry meterRegistry, String role) {
+        return Counter.builder("gateway.coalescing.requests")
+                .description("Coalescable GET requests by role in the shared upstream call")
+                .tag("role", role)
+                .register(meterRegistry);
+    }
+
+    private record SharedResponse(HttpStatusCode status, HttpHeaders headers, byte[] body) {
+    }
+
+    private static class SharingResponseDecorator extends ServerHttpResponseDecorator {
+
+        private final Sinks.One<SharedResponse> sink;
+        private final long maxBodyBytes;
+
+        SharingResponseDecorator(ServerHttpResponse delegate, Sinks.One<SharedResponse> sink, long maxBodyBytes) {
+            super(delegate);
+            this.sink = sink;
+            this.maxBodyBytes = maxBodyBytes;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            HttpStatusCode status = getStatusCode();
+            long contentLength = getHeaders().getContentLength();
+            if (status == null || contentLength > maxBodyBytes || getHeaders().containsKey(HttpHeaders.SET_COOKIE)) {
+                return super.writeWith(body);
+            }
+
+            return DataBufferUtils.join(body)
+                    .flatMap(joined -> {
+                        byte[] bytes = new byte[joined.readableByteCount()];
+                        joined.read(bytes);
+                        DataBufferUtils.release(joined);
+                        if (bytes.length > maxBodyBytes) {
+                            return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+                        }
+
+                        HttpHeaders headers = new HttpHeaders();
+                        getHeaders().forEach((name, values) -> {
+                            if (!isPerRequestHeader(name)) {
+                                headers.put(name, new ArrayList<>(values));
+                            }
+                        });
+                        sink.tryEmitValue(new SharedResponse(status, HttpHeaders.readOnlyHttpHeaders(headers), bytes));
+                        return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+                    });
+        }
+    }
+
+    public static class Config {
+
+        private List<String> paths = new ArrayList<>();
+
+        private RequestScope scope = RequestScope.USER;
+
+        private DataSize maxBodySize = DataSize.ofMegabytes(2);
+
+        private Duration maxWait = Duration.ofSeconds(10);
+
+        public List<String> getPaths() {
+            return paths;
+        }
+
+        public Config setPaths(List<String> paths) {
+            this.paths = paths;
+            return this;
+        }
+
+        public RequestScope getScope() {
+            return scope;
+        }
+
+        public Config setScope(RequestScope scope) {
+            this.scope = scope;
+            return this;
+        }
+
+        public DataSize getMaxBodySize() {
+            return maxBodySize;
+        }
+
+        public Config setMaxBodySize(DataSize maxBodySize) {
+            this.maxBodySize = maxBodySize;
+            return this;
+        }
+
+        public Duration getMaxWait() {
+            return maxWait;
+        }
+
+        public Config setMaxWait(Duration maxWait) {
+            this.maxWait = maxWait;
+            return this;
+        }
+
+        List<PathPattern> compilePaths() {
+            return paths.stream()
+                    .map(String::trim)
+                    .map(PathPatternParser.defaultInstance::parse)
+                    .toList();
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.homegenie.gateway.filter;
+
+import com.homegenie.gateway.config.RequestCostProperties;
+import com.homegenie.gateway.ratelimit.RequestCost;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Assigns each request the token cost of the first matching
+ * {@link RequestCostProperties.Rule}, which the rate limiter charges instead
+ * of a flat {@code requestedTokens}, and caps how many requests one user may
+ * have in flight on a rule (429 beyond that). In-flight caps are per replica.
+ * Runs after {@link JwtAuthenticationFilter} so users are keyed by id, and
+ * before the route's RequestRateLimiter.
+ */
+@Component
+@Slf4j
+public class RequestCostFilter implements GlobalFilter, Ordered {
+
+    private final List<CompiledRule> rules;
+    private final KeyResolver keyResolver;
+    // Only changed inside compute, so taking a slot and dropping an idle
+    // entry can't interleave; an entry exists only while requests are in flight
+    private final Map<String, Integer> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, Counter> rejections = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    public RequestCostFilter(RequestCostProperties properties,
+                             @Qualifier("userKeyResolver") KeyResolver keyResolver,
+                             MeterRegistry meterRegistry) {
+        this.rules = properties.getRules().stream().map(CompiledRule::new).toList();
+        this.keyResolver = keyResolver;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        CompiledRule rule = match(exchange);
+        if (rule == null) {
+            return chain.filter(exchange);
+        }
+        if (rule.maxInFlight <= 0) {
+            return chain.filter(exchange).contextWrite(context -> RequestCost.with(context, rule.cost));
+        }
+
+        return keyResolver.resolve(exchange).defaultIfEmpty("anonymous").flatMap(user -> {
+            String key = rule.name + '|' + user;
+            if (!acquire(key, rule.maxInFlight)) {
+                rejections.computeIfAbsent(rule.name, name -> Counter.builder("gateway.request.cost.rejected")
+                                .description("Requests rejected by a per-user in-flight cap")
+                                .tag("rule", name)
+                                .register(meterRegistry))
+                        .increment();
+                log.debug("User {} exceeded {} in-flight requests on {}", user, rule.maxInFlight, rule.name);
+                exchange.getResponse().setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+                exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER, "1");
+                return exchange.getResponse().setComplete();
+            }
+            return chain.filter(exchange)
+                    .contextWrite(context -> RequestCost.with(context, rule.cost))
+                    .doFinally(signal -> release(key));
+        });
+    }
+
+    private boolean acquire(String key, int maxInFlight) {
+        boolean[] acquired = new boolean[1];
+        inFlight.compute(key, (k, count) -> {
+            int current = count != null ? count : 0;
+            if (current >= maxInFlight) {
+                return count;
+            }
+            acquired[0] = true;
+            return current + 1;
+        });
+        return acquired[0];
+    }
+
+    private void release(String key) {
+        inFlight.computeIfPresent(key, (k, count) -> count > 1 ? count - 1 : null);
+    }
+
+    private CompiledRule match(ServerWebExchange exchange) {
+        if (rules.isEmpty()) {
+            return null;
+        }
+        ServerHttpRequest request = exchange.getRequest();
+        String routeId = RouteMetricsFilter.routeId(exchange);
+        PathContainer path = request.getPath().pathWithinApplication();
+        String method = request.getMethod().name();
+        for (CompiledRule rule : rules) {
+            if (rule.matches(routeId, path, method)) {
+                return rule;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public int getOrder() {
+        return -95;
+    }
+
+    private static class CompiledRule {
+
+        private final String name;
+        private final String routeId;
+        private final List<PathPattern> paths;
+        private final List<String> methods;
+        private final int cost;
+        private final int maxInFlight;
+
+        CompiledRule(RequestCostProperties.Rule rule) {
+            this.paths = rule.getPaths().stream()
+                    .map(String::trim)
+                    .map(PathPatternParser.defaultInstance::parse)
+                    .toList();
+            this.name = rule.getName() != null ? rule.getName() : String.join(",", rule.getPaths());
+            this.routeId = rule.getRouteId();
+            this.methods = rule.getMethods().stream().map(String::trim).map(String::toUpperCase).toList();
+            this.cost = rule.getCost();
+            this.maxInFlight = rule.getMaxInFlight();
+        }
+
+        boolean matches(String requestRouteId, PathContainer path, String method) {
+            return (routeId == null || routeId.equals(requestRouteId))
+                    && (methods.isEmpty() || methods.contains(method))
+                    && paths.stream().anyMatch(pattern -> pattern.matches(path));
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.homegenie.gateway.filter;
+
+import org.springframework.http.server.reactive.ServerHttpRequest;
+
+/**
+ * Who may share a response produced for someone else's request.
+ */
+public enum RequestScope {
+
+    /** Everyone shares the same response. */
+    NONE,
+
+    /** Callers with the same {@code X-User-Role} share a response. */
+    ROLE,
+
+    /** Only requests from the same {@code X-User-Id} share a response. */
+    USER;
+
+    /**
+     * Returns the scope value for the request, or {@code null} when the request
+     * carries no identity for a role or user scope.
+     */
+    public String resolve(ServerHttpRequest request) {
+        String value = switch (this) {
+            case NONE -> "*";
+            case ROLE -> request.getHeaders().getFirst("X-User-Role");
+            case USER -> request.getHeaders().getFirst("X-User-Id");
+        };
+        return value == null || value.isEmpty() ? null : value;
+    }
+
+    /**
+     * Key identifying "the same request" for a route: scope value, path and query.
+     */
+    public String requestKey(String routeId, ServerHttpRequest request) {
+        String scopeValue = resolve(request);
+        if (scopeValue == null) {
+            return null;
+        }
+        String query = request.getURI().getRawQuery();
+        return routeId + "|" + scopeValue + "|" + request.getPath().value() + (query != null ? "?" + query : "");
+    }
+}
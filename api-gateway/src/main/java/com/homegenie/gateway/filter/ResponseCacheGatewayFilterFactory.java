@@ -0,0 +1,383 @@
+package com.homegenie.gateway.filter;
+
+import com.homegenie.gateway.cache.CachedResponse;
+import com.homegenie.gateway.cache.ResponseCacheStore;
+import com.homegenie.gateway.compression.ResponseCompressor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Caches successful GET responses for selected paths of a route and answers
+ * {@code If-None-Match} with 304 straight from the gateway.
+ * <pre>
+ * filters:
+ *   - name: ResponseCache
+ *     args:
+ *       paths: /api/maintenance/statistics,/api/maintenance/technicians
+ *       ttl: 30s
+ *       scope: ROLE
+ *       stale-if-error: 5m
+ * </pre>
+ * {@code scope} decides who shares an entry, see {@link RequestScope}.
+ * A successful non-GET request to one of {@code invalidate-paths}, by default
+ * the cached paths themselves, expires the route's entries; their stale copies
+ * are kept for {@code stale-if-error}. Other writes, and read-only POSTs such
+ * as batch lookups, leave the cache alone.
+ * Compressible entries also keep a gzip variant so repeat hits from clients
+ * accepting gzip skip {@link ResponseCompressionFilter}'s compression work.
+ * With {@code stale-if-error} an expired entry stays around for that long and
+ * is served, marked with a {@code Warning} header, when the upstream errors or
+ * answers 5xx, including while the route's {@link RouteCircuitBreakerGatewayFilterFactory}
+ * is open.
+ * The filter runs just ahead of {@link NettyWriteResponseFilter},
+ * outside the route's other filters, so a hit also skips the route's rate limiter.
+ */
+@Component
+@Slf4j
+public class ResponseCacheGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<ResponseCacheGatewayFilterFactory.Config> {
+
+    public static final String CACHE_STATUS_HEADER = "X-Cache";
+
+    private static final String STALE_WARNING = "110 - \"Response is Stale\"";
+
+    private static final List<String> CACHED_HEADERS = List.of(
+            HttpHeaders.CONTENT_TYPE,
+            HttpHeaders.CONTENT_LANGUAGE,
+            HttpHeaders.CACHE_CONTROL,
+            HttpHeaders.LAST_MODIFIED,
+            HttpHeaders.VARY);
+
+    private final ResponseCacheStore store;
+    private final ResponseCompressor compressor;
+    private final Counter hitCounter;
+    private final Counter missCounter;
+    private final Counter notModifiedCounter;
+    private final Counter staleCounter;
+
+    public ResponseCacheGatewayFilterFactory(ResponseCacheStore store, ResponseCompressor compressor,
+                                             MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.store = store;
+        this.compressor = compressor;
+        this.hitCounter = requestCounter(meterRegistry, "hit");
+        this.missCounter = requestCounter(meterRegistry, "miss");
+        this.notModifiedCounter = requestCounter(meterRegistry, "not_modified");
+        this.staleCounter = requestCounter(meterRegistry, "stale");
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        List<PathPattern> patterns = config.compilePaths();
+        List<PathPattern> invalidatePatterns = config.compileInvalidatePaths();
+
+        GatewayFilter filter = (exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+            String routeId = route != null ? route.getId() : "";
+
+            HttpMethod method = request.getMethod();
+            if (method == HttpMethod.HEAD || method == HttpMethod.OPTIONS) {
+                return chain.filter(exchange);
+            }
+            PathContainer path = request.getPath().pathWithinApplication();
+            if (method != HttpMethod.GET) {
+                if (invalidatePatterns.stream().noneMatch(pattern -> pattern.matches(path))) {
+                    return chain.filter(exchange);
+                }
+                // Before the response goes out, so the client's next GET can't beat the expiry
+                exchange.getResponse().beforeCommit(() -> {
+                    HttpStatusCode status = exchange.getResponse().getStatusCode();
+                    if (status != null && status.is2xxSuccessful()) {
+                        store.expireRoute(routeId, Instant.now());
+                    }
+                    return Mono.empty();
+                });
+                return chain.filter(exchange);
+            }
+
+            if (patterns.stream().noneMatch(pattern -> pattern.matches(path))) {
+                return chain.filter(exchange);
+            }
+
+            String key = config.getScope().requestKey(routeId, request);
+            if (key == null) {
+                return chain.filter(exchange);
+            }
+
+            String ifNoneMatch = request.getHeaders().getFirst(HttpHeaders.IF_NONE_MATCH);
+            boolean acceptsGzip = ResponseCompressor.GZIP.equals(
+                    compressor.negotiate(request.getHeaders().getFirst(HttpHeaders.ACCEPT_ENCODING)));
+            Instant now = Instant.now();
+            CachedResponse cached = store.get(key);
+            if (cached != null && cached.isFresh(now)) {
+                return writeCached(exchange.getResponse(), cached, ifNoneMatch, acceptsGzip, false);
+            }
+
+            missCounter.increment();
+            CachedResponse stale = cached != null && cached.isUsableStale(now) ? cached : null;
+            ServerHttpResponse response = exchange.getResponse();
+            ServerHttpResponse decorated = new CachingResponseDecorator(
+                    response, key, config, ifNoneMatch, acceptsGzip, stale);
+            Mono<Void> result = chain.filter(exchange.mutate().response(decorated).build());
+            if (stale == null) {
+                return result;
+            }
+            return result.onErrorResume(error -> !response.isCommitted(), error -> {
+                log.debug("Serving stale {} after upstream error: {}", key, error.getMessage());
+                return writeStale(response, stale, ifNoneMatch, acceptsGzip);
+            });
+        };
+        // Ahead of NettyWriteResponseFilter, or it writes the proxied body to the undecorated response
+        return new OrderedGatewayFilter(filter, NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1);
+    }
+
+    private Mono<Void> writeStale(ServerHttpResponse response, CachedResponse stale, String ifNoneMatch,
+                                  boolean acceptsGzip) {
+        staleCounter.increment();
+        // Drop what the failed upstream or the open breaker already put on the response
+        HttpHeaders headers = response.getHeaders();
+        headers.remove(HttpHeaders.CONTENT_LENGTH);
+        headers.remove(HttpHeaders.CONTENT_ENCODING);
+        headers.remove(HttpHeaders.RETRY_AFTER);
+        headers.set(HttpHeaders.WARNING, STALE_WARNING);
+        headers.set(HttpHeaders.AGE, Long.toString(
+                Math.max(0, Duration.between(stale.storedAt(), Instant.now()).toSeconds())));
+        return writeCached(response, stale, ifNoneMatch, acceptsGzip, true);
+    }
+
+    private Mono<Void> writeCached(ServerHttpResponse response, CachedResponse cached, String ifNoneMatch,
+                                   boolean acceptsGzip, boolean stale) {
+        boolean gzip = acceptsGzip && cached.gzipBody() != null;
+        response.getHeaders().putAll(cached.headers());
+        response.getHeaders().setETag(gzip ? ResponseCacheStore.weakTag(cached.etag()) : cached.etag());
+        response.getHeaders().set(CACHE_STATUS_HEADER, stale ? "STALE" : "HIT");
+
+        if (ResponseCacheStore.etagMatches(ifNoneMatch, cached.etag())) {
+            notModifiedCounter.increment();
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            return response.setComplete();
+        }
+
+        if (!stale) {
+            hitCounter.increment();
+        }
+        response.setStatusCode(HttpStatusCode.valueOf(cached.status()));
+        byte[] body = cached.body();
+        if (gzip) {
+            compressor.recordPrecompressed(body.length, cached.gzipBody().length);
+            body = cached.gzipBody();
+            markGzip(response.getHeaders());
+        }
+        response.getHeaders().setContentLength(body.length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+    }
+
+    private static void markGzip(HttpHeaders headers) {
+        headers.set(HttpHeaders.CONTENT_ENCODING, ResponseCompressor.GZIP);
+        if (!headers.getVary().contains(HttpHeaders.ACCEPT_ENCODING)) {
+            headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+    }
+
+    private static Counter requestCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("gateway.response.cache.requests")
+                .description("Requests seen by the gateway response cache")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private class CachingResponseDecorator extends ServerHttpResponseDecorator {
+
+        private final String key;
+        private final Config config;
+        private final String ifNoneMatch;
+        private final boolean acceptsGzip;
+        private final CachedResponse stale;
+
+        CachingResponseDecorator(ServerHttpResponse delegate, String key, Config config, String ifNoneMatch,
+                                 boolean acceptsGzip, CachedResponse stale) {
+            super(delegate);
+            this.key = key;
+            this.config = config;
+            this.ifNoneMatch = ifNoneMatch;
+            this.acceptsGzip = acceptsGzip;
+            this.stale = stale;
+        }
+
+        @Override
+        public Mono<Void> setComplete() {
+            if (servesStale()) {
+                return writeStale(getDelegate(), stale, ifNoneMatch, acceptsGzip);
+            }
+            return super.setComplete();
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            if (servesStale()) {
+                return Flux.from(body)
+                        .doOnNext(DataBufferUtils::release)
+                        .then(Mono.defer(() -> writeStale(getDelegate(), stale, ifNoneMatch, acceptsGzip)));
+            }
+            HttpStatusCode status = getStatusCode();
+            if (status == null || status.value() != HttpStatus.OK.value()
+                    || getHeaders().containsKey(HttpHeaders.SET_COOKIE)) {
+                return super.writeWith(body);
+            }
+
+            boolean compressible = compressor.isCompressible(getHeaders());
+            return DataBufferUtils.join(body).flatMap(joined -> {
+                byte[] bytes = new byte[joined.readableByteCount()];
+                joined.read(bytes);
+                DataBufferUtils.release(joined);
+
+                String etag = ResponseCacheStore.etag(bytes);
+                getHeaders().setETag(etag);
+                getHeaders().set(CACHE_STATUS_HEADER, "MISS");
+
+                byte[] gzipBody = compressible && compressor.meetsMinSize(bytes.length)
+                        ? compressor.compress(bytes, ResponseCompressor.GZIP)
+                        : null;
+                if (store.accepts(bytes.length)) {
+                    Instant now = Instant.now();
+                    Instant expiresAt = now.plus(config.getTtl());
+                    store.put(key, new CachedResponse(status.value(), cachedHeaders(), bytes, gzipBody, etag,
+                            now, expiresAt, expiresAt.plus(config.getStaleIfError())));
+                }
+
+                if (ResponseCacheStore.etagMatches(ifNoneMatch, etag)) {
+                    setStatusCode(HttpStatus.NOT_MODIFIED);
+                    getHeaders().remove(HttpHeaders.CONTENT_LENGTH);
+                    return getDelegate().setComplete();
+                }
+                if (acceptsGzip && gzipBody != null) {
+                    markGzip(getHeaders());
+                    getHeaders().setETag(ResponseCacheStore.weakTag(etag));
+                    getHeaders().setContentLength(gzipBody.length);
+                    return super.writeWith(Mono.just(bufferFactory().wrap(gzipBody)));
+                }
+                return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+            });
+        }
+
+        private boolean servesStale() {
+            HttpStatusCode status = getStatusCode();
+            return stale != null && status != null && status.is5xxServerError();
+        }
+
+        private HttpHeaders cachedHeaders() {
+            HttpHeaders headers = new HttpHeaders();
+            for (String name : CACHED_HEADERS) {
+                List<String> values = getHeaders().get(name);
+                if (values != null) {
+                    headers.put(name, new ArrayList<>(values));
+                }
+            }
+            return HttpHeaders.readOnlyHttpHeaders(headers);
+        }
+    }
+
+    public static class Config {
+
+        private List<String> paths = new ArrayList<>();
+
+        // Writes that change what the cached paths return; empty means the cached paths themselves
+        private List<String> invalidatePaths = new ArrayList<>();
+
+        private Duration ttl = Duration.ofSeconds(30);
+
+        private RequestScope scope = RequestScope.USER;
+
+        // How long past its TTL an entry may stand in for a failing upstream; zero disables it
+        private Duration staleIfError = Duration.ZERO;
+
+        public List<String> getPaths() {
+            return paths;
+        }
+
+        public Config setPaths(List<String> paths) {
+            this.paths = paths;
+            return this;
+        }
+
+        public List<String> getInvalidatePaths() {
+            return invalidatePaths;
+        }
+
+        public Config setInvalidatePaths(List<String> invalidatePaths) {
+            this.invalidatePaths = invalidatePaths;
+            return this;
+        }
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public Config setTtl(Duration ttl) {
+            this.ttl = ttl;
+            return this;
+        }
+
+        public RequestScope getScope() {
+            return scope;
+        }
+
+        public Config setScope(RequestScope scope) {
+            this.scope = scope;
+            return this;
+        }
+
+        public Duration getStaleIfError() {
+            return staleIfError;
+        }
+
+        public Config setStaleIfError(Duration staleIfError) {
+            this.staleIfError = staleIfError;
+            return this;
+        }
+
+        List<PathPattern> compilePaths() {
+            return compile(paths);
+        }
+
+        List<PathPattern> compileInvalidatePaths() {
+            return compile(invalidatePaths.isEmpty() ? paths : invalidatePaths);
+        }
+
+        private static List<PathPattern> compile(List<String> paths) {
+            return paths.stream()
+                    .map(String::trim)
+                    .map(PathPatternParser.defaultInstance::parse)
+                    .toList();
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.homegenie.gateway.filter;
+
+import com.homegenie.gateway.cache.ResponseCacheStore;
+import com.homegenie.gateway.compression.ResponseCompressor;
+import lombok.RequiredArgsConstructor;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Compresses 200 responses with gzip or deflate when the client accepts it,
+ * the content type is textual and the body reaches
+ * {@code gateway.compression.min-response-size}. Bodies that already carry a
+ * {@code Content-Encoding}, such as the response cache's precompressed
+ * variants, are passed through untouched.
+ */
+@Component
+@RequiredArgsConstructor
+public class ResponseCompressionFilter implements GlobalFilter, Ordered {
+
+    private final ResponseCompressor compressor;
+
+    @Value("${gateway.compression.enabled:true}")
+    private boolean enabled;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (!enabled || exchange.getRequest().getMethod() == HttpMethod.HEAD) {
+            return chain.filter(exchange);
+        }
+        String encoding = compressor.negotiate(
+                exchange.getRequest().getHeaders().getFirst(HttpHeaders.ACCEPT_ENCODING));
+        if (encoding == null) {
+            return chain.filter(exchange);
+        }
+        return chain.filter(exchange.mutate()
+                .response(new CompressingResponseDecorator(exchange.getResponse(), encoding))
+                .build());
+    }
+
+    /**
+     * Wraps the response before {@link NettyWriteResponseFilter} writes the upstream body.
+     */
+    @Override
+    public int getOrder() {
+        return NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1;
+    }
+
+    private class CompressingResponseDecorator extends ServerHttpResponseDecorator {
+
+        private final String encoding;
+
+        CompressingResponseDecorator(ServerHttpResponse delegate, String encoding) {
+            super(delegate);
+            this.encoding = encoding;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            HttpHeaders headers = getHeaders();
+            if (getStatusCode() == null || getStatusCode().value() != HttpStatus.OK.value()
+                    || !compressor.isCompressible(headers)) {
+                return super.writeWith(body);
+            }
+
+            return DataBufferUtils.join(body).flatMap(joined -> {
+                byte[] bytes = new byte[joined.readableByteCount()];
+                joined.read(bytes);
+                DataBufferUtils.release(joined);
+
+                if (!compressor.meetsMinSize(bytes.length)) {
+                    compressor.recordSkipped();
+                    return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+                }
+                byte[] compressed = compressor.compress(bytes, encoding);
+                headers.set(HttpHeaders.CONTENT_ENCODING, encoding);
+                if (!headers.getVary().contains(HttpHeaders.ACCEPT_ENCODING)) {
+                    headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+                }
+                String etag = headers.getETag();
+                if (etag != null) {
+                    // The encoded bytes differ, so a strong validator no longer applies
+                    headers.setETag(ResponseCacheStore.weakTag(etag));
+                }
+                headers.setContentLength(compressed.length);
+                return super.writeWith(Mono.just(bufferFactory().wrap(compressed)));
+            });
+        }
+    }
+}
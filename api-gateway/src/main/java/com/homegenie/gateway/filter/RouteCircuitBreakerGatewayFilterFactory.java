@@ -0,0 +1,143 @@
+package com.homegenie.gateway.filter;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resilience4j circuit breaker around everything after it in a route's
+ * filter list. Upstream errors and 5xx responses count as failures; while the
+ * breaker is open requests are answered with 503 and {@code Retry-After}
+ * without reaching the upstream, so a recovering instance isn't hit by every
+ * client retry. {@link ResponseCacheGatewayFilterFactory} runs ahead of the
+ * breaker and replaces the 503 with a stale cached response where one is kept.
+ * <pre>
+ * filters:
+ *   - RouteCircuitBreaker=maintenanceService
+ * </pre>
+ * Breakers are configured under {@code resilience4j.circuitbreaker.instances},
+ * falling back to {@code configs.default}; {@code name} defaults to the route id.
+ */
+@Component
+@Slf4j
+public class RouteCircuitBreakerGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<RouteCircuitBreakerGatewayFilterFactory.Config> {
+
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+
+    public RouteCircuitBreakerGatewayFilterFactory(CircuitBreakerRegistry circuitBreakerRegistry) {
+        super(Config.class);
+        this.circuitBreakerRegistry = circuitBreakerRegistry;
+    }
+
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of("name");
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        return (exchange, chain) -> {
+            CircuitBreaker breaker = circuitBreakerRegistry.circuitBreaker(breakerName(exchange, config));
+            if (!breaker.tryAcquirePermission()) {
+                return reject(exchange, breaker);
+            }
+
+            StatusRecordingResponse response = new StatusRecordingResponse(exchange.getResponse());
+            long start = System.nanoTime();
+            return chain.filter(exchange.mutate().response(response).build())
+                    .doOnSuccess(v -> {
+                        long duration = System.nanoTime() - start;
+                        HttpStatusCode status = response.upstreamStatus();
+                        if (status != null && status.is5xxServerError()) {
+                            breaker.onError(duration, TimeUnit.NANOSECONDS,
+                                    new ResponseStatusException(status, "Upstream answered " + status.value()));
+                        } else {
+                            breaker.onSuccess(duration, TimeUnit.NANOSECONDS);
+                        }
+                    })
+                    .doOnError(error -> breaker.onError(System.nanoTime() - start, TimeUnit.NANOSECONDS, error))
+                    .doOnCancel(breaker::releasePermission);
+        };
+    }
+
+    private Mono<Void> reject(ServerWebExchange exchange, CircuitBreaker breaker) {
+        log.debug("Circuit {} is {}, rejecting {}", breaker.getName(), breaker.getState(),
+                exchange.getRequest().getPath());
+        long waitMillis = breaker.getCircuitBreakerConfig().getWaitIntervalFunctionInOpenState().apply(1);
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER,
+                Long.toString(Math.max(1, TimeUnit.MILLISECONDS.toSeconds(waitMillis))));
+        return response.setComplete();
+    }
+
+    private static String breakerName(ServerWebExchange exchange, Config config) {
+        if (config.getName() != null) {
+            return config.getName();
+        }
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        return route != null ? route.getId() : "default";
+    }
+
+    /**
+     * Notes the status as written by the upstream, before an outer decorator
+     * such as the response cache replaces a 5xx with a stale entry.
+     */
+    private static class StatusRecordingResponse extends ServerHttpResponseDecorator {
+
+        private HttpStatusCode upstreamStatus;
+
+        StatusRecordingResponse(ServerHttpResponse delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            upstreamStatus = getStatusCode();
+            return super.writeWith(body);
+        }
+
+        @Override
+        public Mono<Void> setComplete() {
+            upstreamStatus = getStatusCode();
+            return super.setComplete();
+        }
+
+        HttpStatusCode upstreamStatus() {
+            return upstreamStatus != null ? upstreamStatus : getStatusCode();
+        }
+    }
+
+    public static class Config {
+
+        private String name;
+
+        public String getName() {
+            return name;
+        }
+
+        public Config setName(String name) {
+            this.name = name;
+            return this;
+        }
+    }
+}
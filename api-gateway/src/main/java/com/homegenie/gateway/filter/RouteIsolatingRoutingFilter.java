@@ -0,0 +1,36 @@
+package com.homegenie.gateway.filter;
+
+import com.homegenie.gateway.client.RouteHttpClients;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.filter.NettyRoutingFilter;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.netty.http.client.HttpClient;
+
+import java.util.List;
+
+/**
+ * {@link NettyRoutingFilter} that sends each route through its own pooled
+ * client from {@link RouteHttpClients} instead of the single shared client.
+ * Registered in place of the default routing filter, which is disabled with
+ * {@code spring.cloud.gateway.global-filter.netty-routing.enabled=false}.
+ */
+public class RouteIsolatingRoutingFilter extends NettyRoutingFilter {
+
+    private final RouteHttpClients routeHttpClients;
+
+    public RouteIsolatingRoutingFilter(HttpClient httpClient,
+                                       ObjectProvider<List<HttpHeadersFilter>> headersFiltersProvider,
+                                       HttpClientProperties properties,
+                                       RouteHttpClients routeHttpClients) {
+        super(httpClient, headersFiltersProvider, properties);
+        this.routeHttpClients = routeHttpClients;
+    }
+
+    @Override
+    protected HttpClient getHttpClient(Route route, ServerWebExchange exchange) {
+        return routeHttpClients.clientFor(route);
+    }
+}
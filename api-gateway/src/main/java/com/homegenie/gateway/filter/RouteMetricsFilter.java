@@ -0,0 +1,61 @@
+package com.homegenie.gateway.filter;
+
+import com.homegenie.gateway.metrics.RouteMetrics;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.metrics.http.Outcome;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Outermost gateway filter: tracks in-flight requests per route and the total
+ * time of each exchange. Stores the start time so that
+ * {@link UpstreamTimingFilter} can split it into filter overhead and upstream time.
+ */
+@Component
+@RequiredArgsConstructor
+public class RouteMetricsFilter implements GlobalFilter, Ordered {
+
+    public static final String START_NANOS_ATTR = RouteMetricsFilter.class.getName() + ".startNanos";
+
+    private final RouteMetrics routeMetrics;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        String routeId = routeId(exchange);
+        long start = System.nanoTime();
+        exchange.getAttributes().put(START_NANOS_ATTR, start);
+
+        AtomicInteger inFlight = routeMetrics.inFlight(routeId);
+        inFlight.incrementAndGet();
+
+        return chain.filter(exchange)
+                .doFinally(signal -> {
+                    inFlight.decrementAndGet();
+                    routeMetrics.recordDuration(routeId, outcome(exchange.getResponse().getStatusCode()),
+                            System.nanoTime() - start);
+                });
+    }
+
+    static String routeId(ServerWebExchange exchange) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        return route != null ? route.getId() : "unknown";
+    }
+
+    static String outcome(HttpStatusCode status) {
+        return status != null ? Outcome.forStatus(status.value()).name() : Outcome.UNKNOWN.name();
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+}
@@ -0,0 +1,53 @@
+package com.homegenie.gateway.filter;
+
+import com.homegenie.gateway.metrics.RouteMetrics;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyRoutingFilter;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Runs immediately before {@link NettyRoutingFilter}: everything between
+ * {@link RouteMetricsFilter} and this point is gateway filter overhead, and the
+ * remaining chain is the upstream call. The upstream time is also left on the
+ * exchange under {@link #UPSTREAM_NANOS_ATTR}.
+ */
+@Component
+@RequiredArgsConstructor
+public class UpstreamTimingFilter implements GlobalFilter, Ordered {
+
+    public static final String UPSTREAM_NANOS_ATTR = UpstreamTimingFilter.class.getName() + ".upstreamNanos";
+
+    private final RouteMetrics routeMetrics;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        String routeId = RouteMetricsFilter.routeId(exchange);
+        long upstreamStart = System.nanoTime();
+
+        Long start = exchange.getAttribute(RouteMetricsFilter.START_NANOS_ATTR);
+        if (start != null) {
+            routeMetrics.recordOverhead(routeId, upstreamStart - start);
+        }
+
+        // Recorded before the terminal signal propagates so outer filters can read the attribute
+        Runnable record = () -> {
+            long upstreamNanos = System.nanoTime() - upstreamStart;
+            exchange.getAttributes().put(UPSTREAM_NANOS_ATTR, upstreamNanos);
+            routeMetrics.recordUpstream(routeId,
+                    RouteMetricsFilter.outcome(exchange.getResponse().getStatusCode()), upstreamNanos);
+        };
+        return chain.filter(exchange)
+                .doOnTerminate(record)
+                .doOnCancel(record);
+    }
+
+    @Override
+    public int getOrder() {
+        return NettyRoutingFilter.ORDER - 1;
+    }
+}
@@ -0,0 +1,125 @@
+package com.homegenie.gateway.metrics;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Per-route latency and saturation meters. Timers publish client-side
+ * percentiles (HdrHistogram-backed) as well as Prometheus histogram buckets:
+ * <ul>
+ *   <li>{@code gateway.route.duration} - whole exchange as seen by the gateway</li>
+ *   <li>{@code gateway.route.overhead} - filter chain time before the upstream call starts</li>
+ *   <li>{@code gateway.route.upstream} - upstream call until response headers arrive</li>
+ *   <li>{@code gateway.route.in.flight} - exchanges currently open per route</li>
+ * </ul>
+ */
+@Component
+public class RouteMetrics {
+
+    private static final double[] PERCENTILES = {0.5, 0.9, 0.95, 0.99, 0.999};
+    private static final String UPSTREAM_PREFIX = "gateway.route.upstream|";
+    private static final String SUCCESS_SUFFIX = "|SUCCESS";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, AtomicInteger> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    // Refreshed on a schedule so readers don't copy the histogram per request
+    private final Map<String, UpstreamPercentiles> upstreamPercentiles = new ConcurrentHashMap<>();
+
+    public RouteMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public AtomicInteger inFlight(String routeId) {
+        return inFlight.computeIfAbsent(routeId, id -> {
+            AtomicInteger gauge = new AtomicInteger();
+            Gauge.builder("gateway.route.in.flight", gauge, AtomicInteger::get)
+                    .description("Requests currently being handled per route")
+                    .tag("routeId", id)
+                    .register(meterRegistry);
+            return gauge;
+        });
+    }
+
+    public void recordDuration(String routeId, String outcome, long nanos) {
+        timer("gateway.route.duration", "Total time spent on a request by the gateway", routeId, outcome)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordOverhead(String routeId, long nanos) {
+        timer("gateway.route.overhead", "Gateway filter time before the upstream call", routeId, null)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordUpstream(String routeId, String outcome, long nanos) {
+        timer("gateway.route.upstream", "Upstream time until response headers are received", routeId, outcome)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Upstream latency of successful calls at one of the published percentiles,
+     * or null until the route has at least {@code minSamples} observations.
+     * Reads the values from the last {@link #refreshUpstreamPercentiles}.
+     */
+    public Duration upstreamPercentile(String routeId, double percentile, long minSamples) {
+        UpstreamPercentiles snapshot = upstreamPercentiles.get(routeId);
+        if (snapshot == null || snapshot.count() < minSamples) {
+            return null;
+        }
+        for (int i = 0; i < PERCENTILES.length; i++) {
+            if (PERCENTILES[i] == percentile) {
+                return Duration.ofNanos(snapshot.nanos()[i]);
+            }
+        }
+        return null;
+    }
+
+    @Scheduled(fixedDelayString = "${gateway.metrics.percentile-refresh-interval:1000}")
+    public void refreshUpstreamPercentiles() {
+        timers.forEach((key, timer) -> {
+            if (!key.startsWith(UPSTREAM_PREFIX) || !key.endsWith(SUCCESS_SUFFIX)) {
+                return;
+            }
+            String routeId = key.substring(UPSTREAM_PREFIX.length(), key.length() - SUCCESS_SUFFIX.length());
+            long[] nanos = new long[PERCENTILES.length];
+            for (ValueAtPercentile value : timer.takeSnapshot().percentileValues()) {
+                for (int i = 0; i < PERCENTILES.length; i++) {
+                    if (PERCENTILES[i] == value.percentile()) {
+                        nanos[i] = (long) value.value(TimeUnit.NANOSECONDS);
+                    }
+                }
+            }
+            upstreamPercentiles.put(routeId, new UpstreamPercentiles(timer.count(), nanos));
+        });
+    }
+
+    private Timer timer(String name, String description, String routeId, String outcome) {
+        String key = name + '|' + routeId + '|' + outcome;
+        return timers.computeIfAbsent(key, k -> {
+            Timer.Builder builder = Timer.builder(name)
+                    .description(description)
+                    .tag("routeId", routeId)
+                    .publishPercentiles(PERCENTILES)
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(Duration.ofNanos(10_000))
+                    .maximumExpectedValue(Duration.ofSeconds(30));
+            if (outcome != null) {
+                builder.tag("outcome", outcome);
+            }
+            return builder.register(meterRegistry);
+        });
+    }
+
+    private record UpstreamPercentiles(long count, long[] nanos) {
+    }
+}
@@ -0,0 +1,64 @@
+package com.homegenie.gateway.ratelimit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.ratelimit.RedisRateLimiter;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link RedisRateLimiter} that charges each request its {@link RequestCost}
+ * instead of the route's fixed {@code requestedTokens}. Runs SCG's own token
+ * bucket script with the same keys, so buckets are shared with the stock
+ * limiter during a rolling deploy.
+ */
+@Slf4j
+public class CostAwareRedisRateLimiter extends RedisRateLimiter {
+
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final RedisScript<List<Long>> script;
+
+    public CostAwareRedisRateLimiter(ReactiveStringRedisTemplate redisTemplate, RedisScript<List<Long>> script,
+                                     ConfigurationService configurationService) {
+        super(redisTemplate, script, configurationService);
+        this.redisTemplate = redisTemplate;
+        this.script = script;
+    }
+
+    @Override
+    public Mono<Response> isAllowed(String routeId, String id) {
+        Config config = getConfig().get(routeId);
+        if (config == null) {
+            return super.isAllowed(routeId, id);
+        }
+
+        return Mono.deferContextual(context -> {
+            int tokens = Math.min(RequestCost.tokens(context, config.getRequestedTokens()),
+                    config.getBurstCapacity());
+            if (tokens == config.getRequestedTokens()) {
+                return super.isAllowed(routeId, id);
+            }
+
+            String prefix = "request_rate_limiter.{" + id;
+            List<String> keys = List.of(prefix + "}.tokens", prefix + "}.timestamp");
+            List<String> args = List.of(String.valueOf(config.getReplenishRate()),
+                    String.valueOf(config.getBurstCapacity()), "", String.valueOf(tokens));
+
+            return redisTemplate.execute(script, keys, args)
+                    .onErrorResume(e -> {
+                        log.error("Error determining if user allowed from redis", e);
+                        return Flux.just(List.of(1L, -1L));
+                    })
+                    .reduce(new ArrayList<Long>(), (all, results) -> {
+                        all.addAll(results);
+                        return all;
+                    })
+                    .map(results -> new Response(results.get(0) == 1L, getHeaders(config, results.get(1))));
+        });
+    }
+}
@@ -0,0 +1,161 @@
+package com.homegenie.gateway.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.ratelimit.AbstractRateLimiter;
+import org.springframework.cloud.gateway.filter.ratelimit.RedisRateLimiter;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.scheduling.annotation.Scheduled;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+
+/**
+ * In-process token-bucket {@link org.springframework.cloud.gateway.filter.ratelimit.RateLimiter}.
+ * Buckets live in per-route {@link ConcurrentHashMap}s (whose bins are locked
+ * independently) and are updated with a single CAS, so a check never leaves
+ * the calling event-loop thread. Route arguments are read from
+ * {@code local-rate-limiter.*}, mirroring {@code redis-rate-limiter.*}, and
+ * the same {@code X-RateLimit-*} response headers are emitted.
+ */
+@Slf4j
+public class LocalRateLimiter extends AbstractRateLimiter<LocalRateLimiter.Config> {
+
+    public static final String CONFIGURATION_PROPERTY_NAME = "local-rate-limiter";
+
+    private static final long NANOS_PER_SECOND = Duration.ofSeconds(1).toNanos();
+
+    private final Map<String, Map<String, TokenBucket>> buckets = new ConcurrentHashMap<>();
+    private final Config defaultConfig;
+    private final long idleNanos;
+    private final Counter allowedCounter;
+    private final Counter deniedCounter;
+
+    public LocalRateLimiter(ConfigurationService configurationService, Config defaultConfig,
+                            Duration idleTimeout, MeterRegistry meterRegistry) {
+        super(Config.class, CONFIGURATION_PROPERTY_NAME, configurationService);
+        this.defaultConfig = defaultConfig;
+        this.idleNanos = idleTimeout.toNanos();
+        this.allowedCounter = Counter.builder("gateway.ratelimiter.requests")
+                .tag("limiter", "local")
+                .tag("result", "allowed")
+                .register(meterRegistry);
+        this.deniedCounter = Counter.builder("gateway.ratelimiter.requests")
+                .tag("limiter", "local")
+                .tag("result", "denied")
+                .register(meterRegistry);
+        Gauge.builder("gateway.ratelimiter.buckets", buckets,
+                        b -> b.values().stream().mapToInt(Map::size).sum())
+                .tag("limiter", "local")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Charges the request's {@link RequestCost}, capped at the burst capacity,
+     * or the route's {@code requestedTokens} when no cost was assigned.
+     */
+    @Override
+    public Mono<Response> isAllowed(String routeId, String id) {
+        Config config = loadConfiguration(routeId);
+
+        return Mono.deferContextual(context -> {
+            int tokens = Math.min(RequestCost.tokens(context, config.getRequestedTokens()),
+                    config.getBurstCapacity());
+            long now = System.nanoTime();
+
+            TokenBucket bucket = buckets
+                    .computeIfAbsent(routeId, r -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(id, k -> new TokenBucket(now));
+            long remaining = bucket.tryConsume(now, config.intervalNanos(), config.getBurstCapacity(), tokens);
+
+            boolean allowed = remaining >= 0;
+            (allowed ? allowedCounter : deniedCounter).increment();
+            return Mono.just(new Response(allowed, getHeaders(config, allowed ? remaining : 0, tokens)));
+        });
+    }
+
+    Config loadConfiguration(String routeId) {
+        Config config = getConfig().getOrDefault(routeId, defaultConfig);
+        if (config == null) {
+            throw new IllegalArgumentException("No Configuration found for route " + routeId);
+        }
+        return config;
+    }
+
+    void forEachBucket(BiConsumer<String, Map<String, TokenBucket>> action) {
+        buckets.forEach(action);
+    }
+
+    @Scheduled(fixedDelayString = "${gateway.rate-limiter.eviction-interval:60000}")
+    public void evictIdleBuckets() {
+        long now = System.nanoTime();
+        int evicted = 0;
+        for (Map<String, TokenBucket> routeBuckets : buckets.values()) {
+            int before = routeBuckets.size();
+            routeBuckets.values().removeIf(bucket -> bucket.isIdle(now, idleNanos));
+            evicted += before - routeBuckets.size();
+        }
+        if (evicted > 0) {
+            log.debug("Evicted {} idle rate limit buckets", evicted);
+        }
+    }
+
+    private Map<String, String> getHeaders(Config config, long tokensLeft, int tokens) {
+        return Map.of(
+                RedisRateLimiter.REMAINING_HEADER, String.valueOf(tokensLeft),
+                RedisRateLimiter.REPLENISH_RATE_HEADER, String.valueOf(config.getReplenishRate()),
+                RedisRateLimiter.BURST_CAPACITY_HEADER, String.valueOf(config.getBurstCapacity()),
+                RedisRateLimiter.REQUESTED_TOKENS_HEADER, String.valueOf(tokens));
+    }
+
+    public static class Config {
+
+        private int replenishRate;
+
+        private int burstCapacity = 1;
+
+        private int requestedTokens = 1;
+
+        public int getReplenishRate() {
+            return replenishRate;
+        }
+
+        public Config setReplenishRate(int replenishRate) {
+            this.replenishRate = replenishRate;
+            return this;
+        }
+
+        public int getBurstCapacity() {
+            return burstCapacity;
+        }
+
+        public Config setBurstCapacity(int burstCapacity) {
+            this.burstCapacity = burstCapacity;
+            return this;
+        }
+
+        public int getRequestedTokens() {
+            return requestedTokens;
+        }
+
+        public Config setRequestedTokens(int requestedTokens) {
+            this.requestedTokens = requestedTokens;
+            return this;
+        }
+
+        long intervalNanos() {
+            return NANOS_PER_SECOND / Math.max(1, replenishRate);
+        }
+
+        @Override
+        public String toString() {
+            return "Config{replenishRate=" + replenishRate + ", burstCapacity=" + burstCapacity
+                    + ", requestedTokens=" + requestedTokens + '}';
+        }
+    }
+}
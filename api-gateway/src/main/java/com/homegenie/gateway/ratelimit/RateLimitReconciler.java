@@ -0,0 +1,71 @@
+package com.homegenie.gateway.ratelimit;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Hybrid mode for {@link LocalRateLimiter}: every sync interval each replica
+ * adds the tokens it handed out per key to a shared Redis counter and debits
+ * its local bucket by whatever the other replicas consumed since the previous
+ * sync. Requests are still decided in memory; if Redis is unreachable the
+ * deltas are kept and the gateway carries on with per-replica limits.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class RateLimitReconciler {
+
+    private final LocalRateLimiter rateLimiter;
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final Duration counterTtl;
+
+    @Scheduled(fixedDelayString = "${gateway.rate-limiter.sync-interval:1000}")
+    public void reconcile() {
+        long now = System.nanoTime();
+        rateLimiter.forEachBucket((routeId, routeBuckets) -> {
+            LocalRateLimiter.Config config = rateLimiter.loadConfiguration(routeId);
+            long refillNanos = config.intervalNanos() * config.getBurstCapacity();
+
+            try {
+                Flux.fromIterable(routeBuckets.entrySet())
+                        .flatMap(entry -> sync(routeId, entry.getKey(), entry.getValue(), config, refillNanos, now), 16)
+                        .blockLast(counterTtl);
+            } catch (IllegalStateException e) {
+                log.warn("Rate limit sync for route {} timed out", routeId);
+            }
+        });
+    }
+
+    private Mono<Void> sync(String routeId, String id, TokenBucket bucket, LocalRateLimiter.Config config,
+                            long refillNanos, long now) {
+        long local = bucket.drainUnsynced();
+        if (local == 0 && bucket.getLastSyncedTotal() < 0) {
+            return Mono.empty();
+        }
+        String key = "local_rate_limiter.{" + routeId + "." + id + "}.consumed";
+
+        return redisTemplate.opsForValue().increment(key, local)
+                .flatMap(total -> redisTemplate.expire(key, counterTtl).thenReturn(total))
+                .doOnNext(total -> {
+                    long previous = bucket.getLastSyncedTotal();
+                    // A first sync, or one after the bucket would have refilled anyway, only sets the baseline
+                    boolean stale = previous < 0 || now - bucket.getLastSyncNanos() > refillNanos;
+                    long remote = stale ? 0 : total - previous - local;
+                    if (remote > 0) {
+                        bucket.debit(now, config.intervalNanos(), config.getBurstCapacity(), remote);
+                    }
+                    bucket.markSynced(total, now);
+                })
+                .onErrorResume(e -> {
+                    bucket.restoreUnsynced(local);
+                    log.debug("Rate limit sync with Redis failed for {}: {}", key, e.getMessage());
+                    return Mono.empty();
+                })
+                .then();
+    }
+}
@@ -0,0 +1,29 @@
+package com.homegenie.gateway.ratelimit;
+
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+/**
+ * Carries the token cost of the current request from
+ * {@link com.homegenie.gateway.filter.RequestCostFilter} to the rate limiter
+ * through the Reactor context, since {@code RateLimiter#isAllowed} only sees
+ * the route and key.
+ */
+public final class RequestCost {
+
+    private static final String CONTEXT_KEY = RequestCost.class.getName();
+
+    private RequestCost() {
+    }
+
+    public static Context with(Context context, int tokens) {
+        return context.put(CONTEXT_KEY, tokens);
+    }
+
+    /**
+     * The request's cost, or {@code fallback} (the route's requestedTokens) if none was set.
+     */
+    public static int tokens(ContextView context, int fallback) {
+        return context.getOrDefault(CONTEXT_KEY, fallback);
+    }
+}
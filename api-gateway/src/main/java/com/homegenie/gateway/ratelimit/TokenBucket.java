@@ -0,0 +1,84 @@
+package com.homegenie.gateway.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free token bucket stored as a single "theoretical arrival time" (GCRA).
+ * The bucket is full whenever that time is not ahead of the clock, and every
+ * consumed token pushes it forward by one replenish interval.
+ */
+class TokenBucket {
+
+    private final AtomicLong theoreticalArrival;
+    private final LongAdder unsynced = new LongAdder();
+    private volatile long lastSyncedTotal = -1;
+    private volatile long lastSyncNanos;
+
+    TokenBucket(long nowNanos) {
+        this.theoreticalArrival = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Takes {@code tokens} from the bucket if they are available.
+     *
+     * @return the tokens left after the call, or {@code -1} if the request was denied
+     */
+    long tryConsume(long nowNanos, long intervalNanos, long capacity, int tokens) {
+        long limit = capacity * intervalNanos;
+        while (true) {
+            long tat = theoreticalArrival.get();
+            long next = Math.max(tat, nowNanos) + tokens * intervalNanos;
+            if (next - nowNanos > limit) {
+                return -1;
+            }
+            if (theoreticalArrival.compareAndSet(tat, next)) {
+                unsynced.add(tokens);
+                return (limit - (next - nowNanos)) / intervalNanos;
+            }
+        }
+    }
+
+    /**
+     * Removes tokens consumed elsewhere (by another gateway replica), never
+     * leaving the bucket more than empty.
+     */
+    void debit(long nowNanos, long intervalNanos, long capacity, long tokens) {
+        long limit = capacity * intervalNanos;
+        while (true) {
+            long tat = theoreticalArrival.get();
+            long next = Math.min(Math.max(tat, nowNanos) + tokens * intervalNanos, nowNanos + limit);
+            if (next <= tat || theoreticalArrival.compareAndSet(tat, next)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * A bucket that has refilled completely carries no state worth keeping.
+     */
+    boolean isIdle(long nowNanos, long idleNanos) {
+        return nowNanos - theoreticalArrival.get() >= idleNanos && unsynced.sum() == 0;
+    }
+
+    long drainUnsynced() {
+        return unsynced.sumThenReset();
+    }
+
+    void restoreUnsynced(long tokens) {
+        unsynced.add(tokens);
+    }
+
+    long getLastSyncedTotal() {
+        return lastSyncedTotal;
+    }
+
+    long getLastSyncNanos() {
+        return lastSyncNanos;
+    }
+
+    void markSynced(long total, long nowNanos) {
+        this.lastSyncedTotal = total;
+        this.lastSyncNanos = nowNanos;
+    }
+}
@@ -0,0 +1,73 @@
+package com.homegenie.gateway.security;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Bloom filter with a small counter per slot instead of a bit, so entries can
+ * be removed again. Counters saturate at {@link #MAX_COUNT} and then stick,
+ * which can only add false positives, never false negatives.
+ */
+class CountingBloomFilter {
+
+    private static final int MAX_COUNT = 255;
+
+    private final AtomicIntegerArray counters;
+    private final int hashes;
+
+    CountingBloomFilter(int expectedInsertions, double falsePositiveRate) {
+        int slots = (int) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.counters = new AtomicIntegerArray(Math.max(64, slots));
+        this.hashes = Math.max(1, (int) Math.round((double) slots / expectedInsertions * Math.log(2)));
+    }
+
+    void add(String key) {
+        long hash = hash(key);
+        for (int i = 0; i < hashes; i++) {
+            int slot = slot(hash, i);
+            counters.getAndUpdate(slot, count -> count < MAX_COUNT ? count + 1 : count);
+        }
+    }
+
+    void remove(String key) {
+        if (!mightContain(key)) {
+            return;
+        }
+        long hash = hash(key);
+        for (int i = 0; i < hashes; i++) {
+            int slot = slot(hash, i);
+            counters.getAndUpdate(slot, count -> count > 0 && count < MAX_COUNT ? count - 1 : count);
+        }
+    }
+
+    boolean mightContain(String key) {
+        long hash = hash(key);
+        for (int i = 0; i < hashes; i++) {
+            if (counters.get(slot(hash, i)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int slot(long hash, int i) {
+        // Kirsch-Mitzenmacher double hashing from the two halves of one 64-bit hash
+        int combined = (int) hash + i * (int) (hash >>> 32);
+        return (combined & Integer.MAX_VALUE) % counters.length();
+    }
+
+    private static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b;
+            h *= 0x100000001b3L;
+        }
+        // fmix64 from MurmurHash3 to spread FNV's weak high bits
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb93fe53e1a87L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,84 @@
+package com.homegenie.gateway.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Produces the {@value #HEADER} header that tells downstream services who the
+ * caller is: {@code base64url(userId \n role \n email \n expiry).base64url(HMAC-SHA256)}.
+ * Services check the MAC with the shared {@code gateway.internal-identity.secret}
+ * instead of parsing the JWT again. The expiry is at most {@code ttl} ahead, and
+ * never past the token's own, so a leaked header is only good for a short while.
+ */
+@Component
+public class InternalIdentitySigner {
+
+    public static final String HEADER = "X-Internal-Identity";
+    public static final String SERVICE_ROLE = "SERVICE";
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final SecretKeySpec key;
+    private final Duration ttl;
+    private final ThreadLocal<Mac> macs;
+
+    public InternalIdentitySigner(
+            @Value("${gateway.internal-identity.secret}") String secret,
+            @Value("${gateway.internal-identity.ttl:60s}") Duration ttl) {
+        this.key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+        this.ttl = ttl;
+        // Mac instances aren't thread-safe; keep one per event loop thread
+        this.macs = ThreadLocal.withInitial(this::newMac);
+    }
+
+    public String sign(VerifiedToken token) {
+        Instant expiresAt = Instant.now().plus(ttl);
+        if (token.expiresAt() != null && token.expiresAt().isBefore(expiresAt)) {
+            expiresAt = token.expiresAt();
+        }
+        return sign(token.userId(), token.role(), token.email(), expiresAt);
+    }
+
+    /**
+     * Identity for the gateway's own calls to a service's {@code /internal/**}
+     * endpoints, which have no user behind them.
+     */
+    public String signService() {
+        return sign(null, SERVICE_ROLE, null, Instant.now().plus(ttl));
+    }
+
+    private String sign(String userId, String role, String email, Instant expiresAt) {
+        String claims = String.join("\n",
+                valueOrEmpty(userId),
+                valueOrEmpty(role),
+                valueOrEmpty(email),
+                Long.toString(expiresAt.getEpochSecond()));
+
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        String payload = encoder.encodeToString(claims.getBytes(StandardCharsets.UTF_8));
+        byte[] signature = macs.get().doFinal(payload.getBytes(StandardCharsets.US_ASCII));
+        return payload + "." + encoder.encodeToString(signature);
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 not available", e);
+        }
+    }
+
+    private static String valueOrEmpty(String value) {
+        return value != null ? value : "";
+    }
+}
@@ -0,0 +1,206 @@
+package com.homegenie.gateway.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * In-memory view of user-service's token revocations. Revoked jtis and user
+ * ids are kept in rotating {@link CountingBloomFilter} generations; a token
+ * that misses every generation is accepted without any I/O. Possible hits
+ * are confirmed against user-service and the answer is cached briefly.
+ * Each entry survives at least {@code (generations - 1) * rotation-interval},
+ * which must cover the token lifetime.
+ */
+@Component
+@Slf4j
+public class TokenRevocations {
+
+    private static final ParameterizedTypeReference<List<RevocationEvent>> EVENTS =
+            new ParameterizedTypeReference<>() {
+            };
+
+    private final WebClient webClient;
+    private final InternalIdentitySigner identitySigner;
+    private final int expectedInsertions;
+    private final double falsePositiveRate;
+    private final Duration requestTimeout;
+    private final AtomicReference<CountingBloomFilter[]> generations = new AtomicReference<>();
+    private final AtomicLong lastUpdate = new AtomicLong();
+    // Generation each active revocation row was added to, so a lift only
+    // decrements the filter that actually counted it
+    private final Map<String, CountingBloomFilter> addedTo = new ConcurrentHashMap<>();
+    private final Cache<String, Boolean> confirmed;
+    private final Counter bloomMiss;
+    private final Counter falsePositive;
+    private final Counter revoked;
+
+    public TokenRevocations(
+            WebClient.Builder webClientBuilder,
+            MeterRegistry meterRegistry,
+            InternalIdentitySigner identitySigner,
+            @Value("${USER_SERVICE_URL:http://localhost:8081}") String userServiceUrl,
+            @Value("${gateway.revocation.generations:3}") int generationCount,
+            @Value("${gateway.revocation.expected-insertions:100000}") int expectedInsertions,
+            @Value("${gateway.revocation.false-positive-rate:0.01}") double falsePositiveRate,
+            @Value("${gateway.revocation.confirm-cache-ttl:30s}") Duration confirmCacheTtl,
+            @Value("${gateway.revocation.request-timeout:2s}") Duration requestTimeout) {
+        this.webClient = webClientBuilder.baseUrl(userServiceUrl).build();
+        this.identitySigner = identitySigner;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+        this.requestTimeout = requestTimeout;
+        CountingBloomFilter[] initial = new CountingBloomFilter[generationCount];
+        for (int i = 0; i < generationCount; i++) {
+            initial[i] = newFilter();
+        }
+        this.generations.set(initial);
+        this.confirmed = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(confirmCacheTtl)
+                .build();
+        this.bloomMiss = checkCounter(meterRegistry, "bloom_miss");
+        this.falsePositive = checkCounter(meterRegistry, "false_positive");
+        this.revoked = checkCounter(meterRegistry, "revoked");
+    }
+
+    /**
+     * Emits true if the token is revoked. Completes synchronously unless the
+     * Bloom filter reports a possible hit. If user-service cannot confirm a
+     * hit the token is treated as revoked.
+     */
+    public Mono<Boolean> isRevoked(VerifiedToken token) {
+        boolean candidate = (token.tokenId() != null && mightContain(tokenKey(token.tokenId())))
+                || (token.userId() != null && !token.userId().isEmpty() && mightContain(userKey(token.userId())));
+        if (!candidate) {
+            bloomMiss.increment();
+            return Mono.just(false);
+        }
+
+        String cacheKey = token.tokenId() + '|' + token.userId() + '|' + token.issuedAt();
+        Boolean cached = confirmed.getIfPresent(cacheKey);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+        return webClient.get()
+                .uri(uri -> uri.path("/internal/revocations/check")
+                        .queryParamIfPresent("tokenId", Optional.ofNullable(token.tokenId()))
+                        .queryParam("userId", token.userId())
+                        .queryParamIfPresent("issuedAt", Optional.ofNullable(token.issuedAt())
+                                .map(Instant::toEpochMilli))
+                        .build())
+                .header(InternalIdentitySigner.HEADER, identitySigner.signService())
+                .retrieve()
+                .bodyToMono(new ParameterizedTypeReference<Map<String, Boolean>>() {
+                })
+                .timeout(requestTimeout)
+                .map(body -> Boolean.TRUE.equals(body.get("revoked")))
+                .doOnNext(result -> {
+                    confirmed.put(cacheKey, result);
+                    (result ? revoked : falsePositive).increment();
+                })
+                .onErrorResume(e -> {
+                    log.warn("Could not confirm token revocation with user-service: {}", e.getMessage());
+                    return Mono.just(true);
+                });
+    }
+
+    @Scheduled(fixedDelayString = "${gateway.revocation.sync-interval:5000}")
+    public void sync() {
+        try {
+            List<RevocationEvent> events = webClient.get()
+                    .uri(uri -> uri.path("/internal/revocations").queryParam("since", lastUpdate.get()).build())
+                    .header(InternalIdentitySigner.HEADER, identitySigner.signService())
+                    .retrieve()
+                    .bodyToMono(EVENTS)
+                    .block(requestTimeout);
+            if (events == null || events.isEmpty()) {
+                return;
+            }
+            for (RevocationEvent event : events) {
+                String key = "TOKEN".equals(event.type()) ? tokenKey(event.subject()) : userKey(event.subject());
+                String row = event.type() + '|' + event.subject() + '|' + event.revokedAt();
+                if (event.lifted()) {
+                    // Rows this instance never added, e.g. lifted before a cold start, are skipped
+                    CountingBloomFilter filter = addedTo.remove(row);
+                    if (filter != null && List.of(generations.get()).contains(filter)) {
+                        filter.remove(key);
+                    }
+                } else if (!addedTo.containsKey(row)) {
+                    CountingBloomFilter current = generations.get()[0];
+                    current.add(key);
+                    addedTo.put(row, current);
+                }
+                lastUpdate.accumulateAndGet(event.updatedAt(), Math::max);
+            }
+            confirmed.invalidateAll();
+            log.debug("Applied {} token revocation events", events.size());
+        } catch (RuntimeException e) {
+            log.warn("Token revocation sync failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Starts a fresh generation and drops the oldest one.
+     */
+    @Scheduled(fixedRateString = "${gateway.revocation.rotation-interval:43200000}",
+            initialDelayString = "${gateway.revocation.rotation-interval:43200000}")
+    public void rotate() {
+        CountingBloomFilter[] previous = generations.get();
+        CountingBloomFilter[] next = new CountingBloomFilter[previous.length];
+        next[0] = newFilter();
+        System.arraycopy(previous, 0, next, 1, previous.length - 1);
+        generations.set(next);
+        CountingBloomFilter dropped = previous[previous.length - 1];
+        addedTo.values().removeIf(filter -> filter == dropped);
+    }
+
+    private boolean mightContain(String key) {
+        for (CountingBloomFilter filter : generations.get()) {
+            if (filter.mightContain(key)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private CountingBloomFilter newFilter() {
+        return new CountingBloomFilter(expectedInsertions, falsePositiveRate);
+    }
+
+    private static String tokenKey(String tokenId) {
+        return "jti:" + tokenId;
+    }
+
+    private static String userKey(String userId) {
+        return "user:" + userId;
+    }
+
+    private static Counter checkCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("gateway.jwt.revocation.checks")
+                .description("Revocation checks on verified tokens")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    record RevocationEvent(String type, String subject, long revokedAt, long expiresAt, long updatedAt,
+                           boolean lifted) {
+    }
+}
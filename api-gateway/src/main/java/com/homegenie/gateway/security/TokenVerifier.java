@@ -0,0 +1,138 @@
+package com.homegenie.gateway.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Verifies bearer tokens with a signing key and parser built once at startup,
+ * and remembers verified claims keyed by a SHA-256 digest of the token so that
+ * repeat requests from the same session skip parsing and the HMAC check.
+ * Cached entries expire together with the token's {@code exp} claim.
+ */
+@Component
+public class TokenVerifier {
+
+    private final JwtParser parser;
+    private final Cache<String, VerifiedToken> cache;
+    private final Duration maxTtl;
+    private final Timer parseTimer;
+    private final Timer cacheTimer;
+
+    public TokenVerifier(
+            @Value("${jwt.secret:homegenie-secret-key-change-in-production-minimum-32-chars}") String jwtSecret,
+            @Value("${gateway.jwt.cache.max-size:10000}") long maxSize,
+            @Value("${gateway.jwt.cache.max-ttl:24h}") Duration maxTtl,
+            MeterRegistry meterRegistry) {
+        this.parser = Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8)))
+                .build();
+        this.maxTtl = maxTtl;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new TokenExpiry())
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "jwtClaims");
+        this.parseTimer = Timer.builder("gateway.jwt.verification")
+                .description("Time spent verifying bearer tokens")
+                .tag("source", "parser")
+                .register(meterRegistry);
+        this.cacheTimer = Timer.builder("gateway.jwt.verification")
+                .description("Time spent verifying bearer tokens")
+                .tag("source", "cache")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the identity carried by the token, or throws {@link JwtException}
+     * if the token is malformed, has a bad signature or has expired.
+     */
+    public VerifiedToken verify(String token) {
+        long start = System.nanoTime();
+        String digest = digest(token);
+
+        VerifiedToken cached = cache.getIfPresent(digest);
+        if (cached != null && !cached.isExpired(Instant.now())) {
+            cacheTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return cached;
+        }
+
+        try {
+            Claims claims = parser.parseSignedClaims(token).getPayload();
+            VerifiedToken verified = toVerifiedToken(claims);
+            cache.put(digest, verified);
+            return verified;
+        } finally {
+            parseTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private VerifiedToken toVerifiedToken(Claims claims) {
+        Object userIdClaim = claims.get("userId");
+        Date issuedAt = claims.getIssuedAt();
+        Date expiration = claims.getExpiration();
+        return new VerifiedToken(
+                userIdClaim != null ? String.valueOf(userIdClaim) : "",
+                claims.get("role", String.class),
+                claims.getSubject(),
+                claims.getId(),
+                issuedAt != null ? issuedAt.toInstant() : null,
+                expiration != null ? expiration.toInstant() : null);
+    }
+
+    static String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            byte[] hash = sha256.digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private class TokenExpiry implements Expiry<String, VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+            if (value.expiresAt() == null) {
+                return maxTtl.toNanos();
+            }
+            Duration remaining = Duration.between(Instant.now(), value.expiresAt());
+            if (remaining.isNegative()) {
+                return 0;
+            }
+            return Math.min(remaining.toNanos(), maxTtl.toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.homegenie.gateway.security;
+
+import java.time.Instant;
+
+/**
+ * Identity extracted from a bearer token whose signature has already been checked.
+ */
+public record VerifiedToken(String userId, String role, String email, String tokenId,
+                            Instant issuedAt, Instant expiresAt) {
+
+    public boolean isExpired(Instant now) {
+        return expiresAt != null && !now.isBefore(expiresAt);
+    }
+}
@@ -0,0 +1,94 @@
+package com.homegenie.gateway.filter;
+
+import com.homegenie.gateway.security.InternalIdentitySigner;
+import com.homegenie.gateway.security.TokenRevocations;
+import com.homegenie.gateway.security.TokenVerifier;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class JwtAuthenticationFilterTest {
+
+    private static final String SECRET = "jwt-authentication-filter-test-secret-0123456789";
+
+    @Mock
+    private TokenRevocations tokenRevocations;
+
+    @Mock
+    private InternalIdentitySigner identitySigner;
+
+    private JwtAuthenticationFilter filter;
+    private final AtomicReference<ServerHttpRequest> forwarded = new AtomicReference<>();
+    private final GatewayFilterChain chain = exchange -> {
+        forwarded.set(exchange.getRequest());
+        return Mono.empty();
+    };
+
+    @BeforeEach
+    void setUp() {
+        TokenVerifier tokenVerifier = new TokenVerifier(SECRET, 100, Duration.ofHours(1), new SimpleMeterRegistry());
+        filter = new JwtAuthenticationFilter(tokenVerifier, tokenRevocations, identitySigner);
+    }
+
+    @Test
+    @DisplayName("Public path forwards the signed identity of a valid token")
+    void publicPathForwardsIdentity() {
+        when(tokenRevocations.isRevoked(any())).thenReturn(Mono.just(false));
+        when(identitySigner.sign(any())).thenReturn("signed");
+
+        filter.filter(exchange("/api/users/1/role", TestTokens.token(SECRET, 1, "ADMIN")), chain).block();
+
+        assertThat(forwarded.get().getHeaders().getFirst(InternalIdentitySigner.HEADER)).isEqualTo("signed");
+        assertThat(forwarded.get().getHeaders().getFirst("X-User-Role")).isEqualTo("ADMIN");
+    }
+
+    @Test
+    @DisplayName("Public path drops a revoked token instead of forwarding it")
+    void publicPathDropsRevokedToken() {
+        when(tokenRevocations.isRevoked(any())).thenReturn(Mono.just(true));
+
+        filter.filter(exchange("/api/users/1/role", TestTokens.token(SECRET, 1, "ADMIN")), chain).block();
+
+        HttpHeaders headers = forwarded.get().getHeaders();
+        assertThat(headers.containsKey(HttpHeaders.AUTHORIZATION)).isFalse();
+        assertThat(headers.containsKey(InternalIdentitySigner.HEADER)).isFalse();
+        assertThat(headers.containsKey("X-User-Role")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Protected path rejects a revoked token")
+    void protectedPathRejectsRevokedToken() {
+        when(tokenRevocations.isRevoked(any())).thenReturn(Mono.just(true));
+        MockServerWebExchange exchange = exchange("/api/maintenance", TestTokens.token(SECRET, 1, "ADMIN"));
+
+        filter.filter(exchange, chain).block();
+
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+        assertThat(forwarded.get()).isNull();
+    }
+
+    private static MockServerWebExchange exchange(String path, String token) {
+        return MockServerWebExchange.from(MockServerHttpRequest.put(path)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .header("X-User-Role", "ADMIN"));
+    }
+}
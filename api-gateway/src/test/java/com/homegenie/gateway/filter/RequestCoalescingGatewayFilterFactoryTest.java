@@ -0,0 +1,71 @@
+package com.homegenie.gateway.filter;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "gateway.rate-limiter.mode=local",
+        "spring.cloud.gcp.trace.enabled=false",
+        "management.tracing.enabled=false"
+})
+class RequestCoalescingGatewayFilterFactoryTest {
+
+    private static final StubUpstream upstream = new StubUpstream();
+
+    @LocalServerPort
+    private int port;
+
+    @Value("${jwt.secret}")
+    private String jwtSecret;
+
+    @DynamicPropertySource
+    static void upstreams(DynamicPropertyRegistry registry) {
+        registry.add("USER_SERVICE_URL", upstream::url);
+        registry.add("MAINTENANCE_SERVICE_URL", upstream::url);
+    }
+
+    @AfterEach
+    void resetDelay() {
+        upstream.setDelay(Duration.ZERO);
+    }
+
+    @AfterAll
+    static void stopUpstream() {
+        upstream.close();
+    }
+
+    @Test
+    @DisplayName("Concurrent identical GETs share one upstream call")
+    void coalescesConcurrentGets() {
+        String token = TestTokens.token(jwtSecret, 7, "RESIDENT");
+        WebClient client = WebClient.create("http://localhost:" + port);
+        upstream.setDelay(Duration.ofMillis(500));
+
+        List<String> bodies = Flux.range(0, 5)
+                .flatMap(i -> client.get().uri("/api/maintenance/user/7")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                        .header(HttpHeaders.ACCEPT_ENCODING, "identity")
+                        .retrieve()
+                        .bodyToMono(String.class))
+                .collectList()
+                .block(Duration.ofSeconds(10));
+
+        assertThat(bodies).hasSize(5).allMatch(StubUpstream.BODY::equals);
+        assertThat(upstream.hits("/api/maintenance/user/7")).isEqualTo(1);
+    }
+}
@@ -0,0 +1,198 @@
+package com.homegenie.gateway.filter;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.EntityExchangeResult;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.netty.http.client.HttpClient;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "gateway.rate-limiter.mode=local",
+        "RESPONSE_CACHE_STATISTICS_TTL=2s",
+        "spring.cloud.gcp.trace.enabled=false",
+        "management.tracing.enabled=false"
+})
+class ResponseCacheGatewayFilterFactoryTest {
+
+    private static final StubUpstream upstream = new StubUpstream();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${jwt.secret}")
+    private String jwtSecret;
+
+    @DynamicPropertySource
+    static void upstreams(DynamicPropertyRegistry registry) {
+        registry.add("USER_SERVICE_URL", upstream::url);
+        registry.add("MAINTENANCE_SERVICE_URL", upstream::url);
+    }
+
+    @AfterAll
+    static void stopUpstream() {
+        upstream.close();
+    }
+
+    @Test
+    @DisplayName("Proxied GET is cached and revalidated without reaching the upstream")
+    void cachesProxiedResponse() {
+        String token = TestTokens.token(jwtSecret, 1, "ADMIN");
+
+        EntityExchangeResult<String> first = get("/api/maintenance/statistics", token)
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(ResponseCacheGatewayFilterFactory.CACHE_STATUS_HEADER, "MISS")
+                .expectBody(String.class).returnResult();
+        String etag = first.getResponseHeaders().getETag();
+        assertThat(first.getResponseBody()).isEqualTo(StubUpstream.BODY);
+        assertThat(etag).isNotNull();
+
+        get("/api/maintenance/statistics", token)
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(ResponseCacheGatewayFilterFactory.CACHE_STATUS_HEADER, "HIT")
+                .expectBody(String.class).isEqualTo(StubUpstream.BODY);
+
+        webTestClient.get().uri("/api/maintenance/statistics")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .header(HttpHeaders.IF_NONE_MATCH, etag)
+                .exchange()
+                .expectStatus().isNotModified();
+
+        assertThat(upstream.hits("/api/maintenance/statistics")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Only writes to the configured invalidate paths expire the route's entries")
+    void expiresOnConfiguredWrites() {
+        String token = TestTokens.token(jwtSecret, 1, "ADMIN");
+
+        get("/api/users/technicians", token).expectHeader()
+                .valueEquals(ResponseCacheGatewayFilterFactory.CACHE_STATUS_HEADER, "MISS");
+
+        webTestClient.post().uri("/api/users/batch")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .bodyValue("{\"ids\":[1,2]}")
+                .exchange()
+                .expectStatus().isOk();
+        get("/api/users/technicians", token).expectHeader()
+                .valueEquals(ResponseCacheGatewayFilterFactory.CACHE_STATUS_HEADER, "HIT");
+
+        webTestClient.put().uri("/api/users/2/role")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .bodyValue("{\"role\":\"TECHNICIAN\"}")
+                .exchange()
+                .expectStatus().isOk();
+        get("/api/users/technicians", token).expectHeader()
+                .valueEquals(ResponseCacheGatewayFilterFactory.CACHE_STATUS_HEADER, "MISS");
+
+        assertThat(upstream.hits("/api/users/technicians")).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Open breaker is answered with the stale copy and a Warning header")
+    void servesStaleWhileBreakerIsOpen() {
+        String token = TestTokens.token(jwtSecret, 1, "ADMIN");
+        get("/api/maintenance/technicians", token).expectStatus().isOk();
+        // Expires the entry but keeps it as a stale copy
+        webTestClient.put().uri("/api/maintenance/1/status")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .exchange()
+                .expectStatus().isOk();
+
+        CircuitBreaker breaker = circuitBreakerRegistry.circuitBreaker("maintenanceService");
+        breaker.transitionToForcedOpenState();
+        try {
+            get("/api/maintenance/technicians", token)
+                    .expectStatus().isOk()
+                    .expectHeader().valueEquals(ResponseCacheGatewayFilterFactory.CACHE_STATUS_HEADER, "STALE")
+                    .expectHeader().valueEquals(HttpHeaders.WARNING, "110 - \"Response is Stale\"")
+                    .expectHeader().doesNotExist(HttpHeaders.RETRY_AFTER)
+                    .expectBody(String.class).isEqualTo(StubUpstream.BODY);
+        } finally {
+            breaker.transitionToClosedState();
+        }
+
+        assertThat(upstream.hits("/api/maintenance/technicians")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Hits from gzip clients are served from the stored gzip variant")
+    void servesGzipVariant() throws IOException {
+        String token = TestTokens.token(jwtSecret, 2, "TECHNICIAN");
+        int upstreamHits = upstream.hits("/api/maintenance/statistics");
+        Counter precompressed = meterRegistry.get("gateway.compression.responses")
+                .tag("result", "precompressed").counter();
+        double precompressedBefore = precompressed.count();
+
+        EntityExchangeResult<byte[]> miss = getGzip("/api/maintenance/statistics", token);
+        assertThat(miss.getResponseHeaders().getFirst(ResponseCacheGatewayFilterFactory.CACHE_STATUS_HEADER))
+                .isEqualTo("MISS");
+        assertThat(gunzip(miss.getResponseBody())).isEqualTo(StubUpstream.BODY);
+
+        EntityExchangeResult<byte[]> hit = getGzip("/api/maintenance/statistics", token);
+        assertThat(hit.getResponseHeaders().getFirst(ResponseCacheGatewayFilterFactory.CACHE_STATUS_HEADER))
+                .isEqualTo("HIT");
+        assertThat(hit.getResponseHeaders().getETag()).startsWith("W/");
+        assertThat(hit.getResponseHeaders().getVary()).contains(HttpHeaders.ACCEPT_ENCODING);
+        assertThat(gunzip(hit.getResponseBody())).isEqualTo(StubUpstream.BODY);
+
+        assertThat(precompressed.count()).isEqualTo(precompressedBefore + 1);
+        assertThat(upstream.hits("/api/maintenance/statistics")).isEqualTo(upstreamHits + 1);
+    }
+
+    private EntityExchangeResult<byte[]> getGzip(String path, String token) {
+        // The default test client decompresses bodies and drops Content-Encoding
+        WebTestClient rawClient = WebTestClient
+                .bindToServer(new ReactorClientHttpConnector(HttpClient.create()))
+                .baseUrl("http://localhost:" + port)
+                .build();
+        return rawClient.get().uri(path)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.CONTENT_ENCODING, "gzip")
+                .expectBody(byte[].class).returnResult();
+    }
+
+    private static String gunzip(byte[] body) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private WebTestClient.ResponseSpec get(String path, String token) {
+        return webTestClient.get().uri(path)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .header(HttpHeaders.ACCEPT_ENCODING, "identity")
+                .exchange();
+    }
+}
@@ -0,0 +1,64 @@
+package com.homegenie.gateway.filter;
+
+import io.netty.handler.codec.http.HttpResponseStatus;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Upstream service for gateway tests: answers every request with a JSON body
+ * large enough to be compressed, after {@code delay}, and counts the hits per
+ * path. Revocation syncs from {@link com.homegenie.gateway.security.TokenRevocations}
+ * get an empty list and are not counted.
+ */
+class StubUpstream implements AutoCloseable {
+
+    static final String BODY = "{\"items\":[" + "\"technician\",".repeat(200) + "\"technician\"]}";
+
+    private final Map<String, AtomicInteger> hits = new ConcurrentHashMap<>();
+    private final DisposableServer server;
+    private volatile Duration delay = Duration.ZERO;
+
+    StubUpstream() {
+        this.server = HttpServer.create()
+                .host("localhost")
+                .port(0)
+                .handle((request, response) -> {
+                    String path = request.fullPath();
+                    if (path.startsWith("/internal/")) {
+                        return response.header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                                .sendString(Mono.just("[]"));
+                    }
+                    hits.computeIfAbsent(path, p -> new AtomicInteger()).incrementAndGet();
+                    return response.status(HttpResponseStatus.OK)
+                            .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                            .sendString(Mono.just(BODY).delayElement(delay));
+                })
+                .bindNow();
+    }
+
+    String url() {
+        return "http://localhost:" + server.port();
+    }
+
+    int hits(String path) {
+        AtomicInteger count = hits.get(path);
+        return count != null ? count.get() : 0;
+    }
+
+    void setDelay(Duration delay) {
+        this.delay = delay;
+    }
+
+    @Override
+    public void close() {
+        server.disposeNow();
+    }
+}
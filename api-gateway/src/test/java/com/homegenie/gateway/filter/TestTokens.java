@@ -0,0 +1,31 @@
+package com.homegenie.gateway.filter;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+
+/**
+ * Bearer tokens shaped like the ones user-service issues, signed with the
+ * gateway's {@code jwt.secret}.
+ */
+final class TestTokens {
+
+    private TestTokens() {
+    }
+
+    static String token(String jwtSecret, long userId, String role) {
+        Instant now = Instant.now();
+        return Jwts.builder()
+                .subject("user" + userId + "@homegenie.test")
+                .claim("userId", userId)
+                .claim("role", role)
+                .issuedAt(Date.from(now))
+                .expiration(Date.from(now.plus(Duration.ofHours(1))))
+                .signWith(Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+    }
+}
@@ -21,7 +21,7 @@ public class CacheConfig {
     @Bean
     @Profile("!prod")
     public CacheManager caffeineCacheManager() {
-        CaffeineCacheManager cacheManager = new CaffeineCacheManager("statistics", "technicians", "users");
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager("statistics", "technicians");
         cacheManager.setCaffeine(Caffeine.newBuilder()
                 .maximumSize(500)
                 .expireAfterWrite(5, TimeUnit.MINUTES));
@@ -4,11 +4,14 @@ import com.homegenie.maintenanceservice.dto.*;
 import com.homegenie.maintenanceservice.service.MaintenanceService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
 import java.util.List;
 import java.util.Map;
 
@@ -17,12 +20,30 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class MaintenanceController {
 
+    private static final String RESPOND_ASYNC = "respond-async";
+
     private final MaintenanceService maintenanceService;
 
+    @Value("${maintenance.processing.async-by-default:false}")
+    private boolean asyncByDefault;
+
+    /**
+     * With {@code Prefer: respond-async} (or async-by-default) the request is
+     * saved with a provisional classification and answered with 202; poll
+     * the {@code Location} for {@code processingStage}.
+     */
     @PostMapping
     public ResponseEntity<MaintenanceResponseDTO> createRequest(
             @RequestHeader("X-User-Id") Long userId,
+            @RequestHeader(value = "Prefer", required = false) String prefer,
             @Valid @RequestBody MaintenanceRequestDTO request) {
+        if (asyncByDefault || (prefer != null && prefer.contains(RESPOND_ASYNC))) {
+            MaintenanceResponseDTO accepted = maintenanceService.acceptRequest(userId, request);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/maintenance/" + accepted.getId()))
+                    .header("Preference-Applied", RESPOND_ASYNC)
+                    .body(accepted);
+        }
         return ResponseEntity.ok(maintenanceService.createRequest(userId, request));
     }
 
@@ -2,6 +2,7 @@ package com.homegenie.maintenanceservice.dto;
 
 import com.homegenie.maintenanceservice.model.Category;
 import com.homegenie.maintenanceservice.model.Priority;
+import com.homegenie.maintenanceservice.model.ProcessingStage;
 import com.homegenie.maintenanceservice.model.Status;
 import lombok.Data;
 
@@ -26,4 +27,6 @@ public class MaintenanceResponseDTO implements Serializable {
     private LocalDateTime updatedAt;
     private LocalDateTime resolvedAt;
     private String adminNotes;
+    private ProcessingStage processingStage;
+    private String processingError;
 }
@@ -0,0 +1,11 @@
+package com.homegenie.maintenanceservice.dto;
+
+import lombok.Data;
+
+@Data
+public class UserChange {
+    private long sequence;
+    private Long userId;
+    private String type;
+    private long occurredAt;
+}
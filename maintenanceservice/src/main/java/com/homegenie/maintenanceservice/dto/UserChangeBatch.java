@@ -0,0 +1,12 @@
+package com.homegenie.maintenanceservice.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class UserChangeBatch {
+    private List<UserChange> events = List.of();
+    private long next;
+    private boolean reset;
+}
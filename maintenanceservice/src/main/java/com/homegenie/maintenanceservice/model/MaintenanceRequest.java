@@ -52,4 +52,9 @@ public class MaintenanceRequest {
     private LocalDateTime resolvedAt;
 
     private LocalDateTime lastReminderSentAt;
+
+    @Enumerated(EnumType.STRING)
+    private ProcessingStage processingStage;
+
+    private String processingError;
 }
\ No newline at end of file
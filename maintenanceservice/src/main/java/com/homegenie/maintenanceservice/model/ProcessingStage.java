@@ -0,0 +1,14 @@
+package com.homegenie.maintenanceservice.model;
+
+/**
+ * How far a request accepted with {@code Prefer: respond-async} has got
+ * through the background pipeline. Requests created synchronously go
+ * straight to {@link #COMPLETED}.
+ */
+public enum ProcessingStage {
+    ACCEPTED,
+    CLASSIFIED,
+    IMAGE_STORED,
+    COMPLETED,
+    FAILED
+}
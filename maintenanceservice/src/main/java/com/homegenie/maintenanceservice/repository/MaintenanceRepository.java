@@ -1,11 +1,17 @@
 package com.homegenie.maintenanceservice.repository;
 
 import com.homegenie.maintenanceservice.model.MaintenanceRequest;
+import com.homegenie.maintenanceservice.model.Category;
 import com.homegenie.maintenanceservice.model.Priority;
+import com.homegenie.maintenanceservice.model.ProcessingStage;
 import com.homegenie.maintenanceservice.model.Status;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -23,4 +29,28 @@ public interface MaintenanceRepository extends JpaRepository<MaintenanceRequest,
     long countByPriority(Priority priority);
 
     List<MaintenanceRequest> findByStatusAndCreatedAtBefore(Status status, LocalDateTime cutoff);
-}
\ No newline at end of file
+
+    // Background processing writes only its own columns so it can't undo an
+    // admin update that lands while a stage is running
+
+    @Transactional
+    @Modifying
+    @Query("update MaintenanceRequest m set m.category = :category, m.priority = :priority, " +
+            "m.processingStage = :stage, m.updatedAt = CURRENT_TIMESTAMP where m.id = :id")
+    int updateClassification(@Param("id") Long id, @Param("category") Category category,
+                             @Param("priority") Priority priority, @Param("stage") ProcessingStage stage);
+
+    @Transactional
+    @Modifying
+    @Query("update MaintenanceRequest m set m.imageUrl = :imageUrl, m.processingStage = :stage, " +
+            "m.updatedAt = CURRENT_TIMESTAMP where m.id = :id")
+    int updateImage(@Param("id") Long id, @Param("imageUrl") String imageUrl,
+                    @Param("stage") ProcessingStage stage);
+
+    @Transactional
+    @Modifying
+    @Query("update MaintenanceRequest m set m.processingStage = :stage, " +
+            "m.processingError = coalesce(:error, m.processingError) where m.id = :id")
+    int updateProcessingStage(@Param("id") Long id, @Param("stage") ProcessingStage stage,
+                              @Param("error") String error);
+}
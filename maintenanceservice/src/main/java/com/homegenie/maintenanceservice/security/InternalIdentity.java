@@ -0,0 +1,7 @@
+package com.homegenie.maintenanceservice.security;
+
+/**
+ * Caller identity the gateway vouched for in the {@code X-Internal-Identity} header.
+ */
+public record InternalIdentity(Long userId, String role, String email) {
+}
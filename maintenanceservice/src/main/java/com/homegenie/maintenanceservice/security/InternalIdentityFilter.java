@@ -0,0 +1,105 @@
+package com.homegenie.maintenanceservice.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Only lets {@code X-User-*} headers through when they come with a valid
+ * {@code X-Internal-Identity} from the gateway, and then replaces them with
+ * the signed values, so controllers can keep reading {@code X-User-Id} while
+ * spoofed headers are answered with 401.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class InternalIdentityFilter extends OncePerRequestFilter {
+
+    private static final String USER_ID = "X-User-Id";
+    private static final String USER_ROLE = "X-User-Role";
+    private static final String USER_EMAIL = "X-User-Email";
+
+    private final InternalIdentityVerifier verifier;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String header = request.getHeader(InternalIdentityVerifier.HEADER);
+        if (header == null && request.getHeader(USER_ID) == null
+                && request.getHeader(USER_ROLE) == null && request.getHeader(USER_EMAIL) == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        Optional<InternalIdentity> identity = verifier.verify(header);
+        if (identity.isEmpty()) {
+            log.warn("Rejected request to {} with unsigned or invalid identity headers", request.getRequestURI());
+            response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Invalid internal identity");
+            return;
+        }
+        chain.doFilter(new IdentityRequest(request, identity.get()), response);
+    }
+
+    private static class IdentityRequest extends HttpServletRequestWrapper {
+
+        private final Map<String, String> identityHeaders;
+
+        IdentityRequest(HttpServletRequest request, InternalIdentity identity) {
+            super(request);
+            this.identityHeaders = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+            putIfPresent(USER_ID, identity.userId() != null ? identity.userId().toString() : null);
+            putIfPresent(USER_ROLE, identity.role());
+            putIfPresent(USER_EMAIL, identity.email());
+        }
+
+        private void putIfPresent(String name, String value) {
+            if (value != null) {
+                identityHeaders.put(name, value);
+            }
+        }
+
+        private boolean isIdentityHeader(String name) {
+            return USER_ID.equalsIgnoreCase(name) || USER_ROLE.equalsIgnoreCase(name)
+                    || USER_EMAIL.equalsIgnoreCase(name);
+        }
+
+        @Override
+        public String getHeader(String name) {
+            return isIdentityHeader(name) ? identityHeaders.get(name) : super.getHeader(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaders(String name) {
+            if (!isIdentityHeader(name)) {
+                return super.getHeaders(name);
+            }
+            String value = identityHeaders.get(name);
+            return value != null ? Collections.enumeration(Set.of(value)) : Collections.emptyEnumeration();
+        }
+
+        @Override
+        public Enumeration<String> getHeaderNames() {
+            Set<String> names = new LinkedHashSet<>();
+            Collections.list(super.getHeaderNames()).stream()
+                    .filter(name -> !isIdentityHeader(name))
+                    .forEach(names::add);
+            names.addAll(identityHeaders.keySet());
+            return Collections.enumeration(names);
+        }
+    }
+}
@@ -73,6 +73,14 @@ public class AIClassificationService {
         return classifyWithRules(combinedText);
     }
 
+    /**
+     * Keyword-only classification, used as the provisional answer when a
+     * request is accepted before the model has been asked.
+     */
+    public AIClassificationResponse classifyByRules(String title, String description) {
+        return classifyWithRules((title + " " + description).toLowerCase());
+    }
+
     private AIClassificationResponse classifyWithHuggingFace(String text) {
         try {
             List<String> candidateLabels = Arrays.asList(
@@ -0,0 +1,134 @@
+package com.homegenie.maintenanceservice.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Runs the independent steps of a single request side by side on a bounded
+ * pool, each with its own timeout, and times them as
+ * {@code maintenance.create.step{step,outcome}}. When the pool is saturated
+ * a step is rejected straight away rather than run on the request thread,
+ * where no timeout could cut it short; callers treat a rejection like a
+ * timeout, see {@link #isUnavailable(RuntimeException)}. A timeout doesn't
+ * stop the work itself; a step that still produces a result afterwards hands
+ * it to its {@code discardLate} callback so nothing it created is left behind.
+ */
+@Component
+public class ConcurrentSteps {
+
+    private final Executor executor;
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    public ConcurrentSteps(MeterRegistry meterRegistry,
+                           @Value("${maintenance.create.threads:8}") int threads,
+                           @Value("${maintenance.create.queue-capacity:50}") int queueCapacity) {
+        this(newExecutor(threads, queueCapacity), meterRegistry);
+    }
+
+    ConcurrentSteps(Executor executor, MeterRegistry meterRegistry) {
+        this.executor = executor;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public <T> CompletableFuture<T> run(String step, Duration timeout, Supplier<T> work) {
+        return run(step, timeout, work, null);
+    }
+
+    /**
+     * Like {@link #run(String, Duration, Supplier)}, but a result that arrives
+     * after the step timed out, when nobody will use it, is passed to
+     * {@code discardLate}.
+     */
+    public <T> CompletableFuture<T> run(String step, Duration timeout, Supplier<T> work,
+                                        Consumer<? super T> discardLate) {
+        long start = System.nanoTime();
+        CompletableFuture<T> timed = new CompletableFuture<T>().orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        try {
+            CompletableFuture.supplyAsync(work, executor).whenComplete((value, error) -> {
+                if (error != null) {
+                    timed.completeExceptionally(error);
+                } else if (!timed.complete(value) && discardLate != null) {
+                    discardLate.accept(value);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            timed.completeExceptionally(e);
+        }
+        return timed
+                .whenComplete((result, error) -> Timer.builder("maintenance.create.step")
+                        .description("Time taken by one step of creating a maintenance request")
+                        .tag("step", step)
+                        .tag("outcome", outcome(error))
+                        .register(meterRegistry)
+                        .record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+    }
+
+    /**
+     * Joins a step, rethrowing what the step itself threw rather than the
+     * {@link CompletionException} around it.
+     */
+    public static <T> T await(CompletableFuture<T> step) {
+        try {
+            return step.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Whether {@link #await} failed because the step ran out of time or never
+     * got a thread, as opposed to the step itself failing.
+     */
+    public static boolean isUnavailable(RuntimeException e) {
+        return e instanceof RejectedExecutionException || e.getCause() instanceof TimeoutException;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (executor instanceof ThreadPoolTaskExecutor pool) {
+            pool.shutdown();
+        }
+    }
+
+    private static String outcome(Throwable error) {
+        if (error == null) {
+            return "success";
+        }
+        Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+        if (cause instanceof TimeoutException) {
+            return "timeout";
+        }
+        return cause instanceof RejectedExecutionException ? "rejected" : "failure";
+    }
+
+    private static ThreadPoolTaskExecutor newExecutor(int threads, int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("create-step-");
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        return executor;
+    }
+}
@@ -17,10 +17,12 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 @Service
@@ -33,6 +35,9 @@ public class MaintenanceService {
     private final StorageService storageService;
     private final NotificationPublisher notificationPublisher;
     private final RestTemplate restTemplate;
+    private final RequestProcessingPipeline processingPipeline;
+    private final ConcurrentSteps concurrentSteps;
+    private final UserDetailsCache userDetailsCache;
 
     @Value("${user.service.url:http://localhost:8081}")
     private String userServiceUrl;
@@ -40,14 +45,54 @@ public class MaintenanceService {
     @Value("${admin.email:admin@homegenie.com}")
     private String adminEmail;
 
+    @Value("${maintenance.create.timeouts.user:3s}")
+    private Duration userLookupTimeout = Duration.ofSeconds(3);
+
+    @Value("${maintenance.create.timeouts.classification:10s}")
+    private Duration classificationTimeout = Duration.ofSeconds(10);
+
+    @Value("${maintenance.create.timeouts.upload:15s}")
+    private Duration uploadTimeout = Duration.ofSeconds(15);
+
+    /**
+     * The user lookup, classification and image upload don't depend on each
+     * other, so they run concurrently and the request waits for the slowest
+     * one rather than all three in turn.
+     */
     @Transactional
     @CacheEvict(value = "statistics", allEntries = true)
     public MaintenanceResponseDTO createRequest(Long userId, MaintenanceRequestDTO dto) {
         log.info("Creating maintenance request for user: {}", userId);
 
-        UserResponse user = getUserDetails(userId);
+        CompletableFuture<UserResponse> userStep = concurrentSteps.run("user", userLookupTimeout,
+                () -> getUserDetails(userId));
+        CompletableFuture<AIClassificationResponse> classificationStep = concurrentSteps.run("classify",
+                classificationTimeout, () -> aiService.classifyRequest(dto.getTitle(), dto.getDescription()));
+        CompletableFuture<String> uploadStep = dto.getImageBase64() != null && !dto.getImageBase64().isEmpty()
+                ? concurrentSteps.run("upload", uploadTimeout, () -> storageService.uploadImage(dto.getImageBase64()),
+                        this::deleteImageQuietly)
+                : CompletableFuture.completedFuture(null);
+
+        UserResponse user;
+        try {
+            user = ConcurrentSteps.await(userStep);
+        } catch (RuntimeException e) {
+            // Don't leave an uploaded image behind for a request that won't exist;
+            // one that only finishes after its timeout is deleted by the step
+            uploadStep.thenAccept(this::deleteImageQuietly);
+            if (ConcurrentSteps.isUnavailable(e)) {
+                throw new ServiceUnavailableException("User service is unavailable", e);
+            }
+            throw e;
+        }
 
-        AIClassificationResponse aiResult = aiService.classifyRequest(dto.getTitle(), dto.getDescription());
+        AIClassificationResponse aiResult;
+        try {
+            aiResult = ConcurrentSteps.await(classificationStep);
+        } catch (RuntimeException e) {
+            log.warn("Classification failed or took over {}, using rule-based result", classificationTimeout);
+            aiResult = aiService.classifyByRules(dto.getTitle(), dto.getDescription());
+        }
         log.info("AI Classification - Category: {}, Priority: {}", aiResult.getCategory(), aiResult.getPriority());
 
         MaintenanceRequest request = new MaintenanceRequest();
@@ -57,14 +102,12 @@ public class MaintenanceService {
         request.setCategory(aiResult.getCategory());
         request.setPriority(aiResult.getPriority());
         request.setStatus(Status.PENDING);
+        request.setProcessingStage(ProcessingStage.COMPLETED);
 
-        if (dto.getImageBase64() != null && !dto.getImageBase64().isEmpty()) {
-            try {
-                String imageUrl = storageService.uploadImage(dto.getImageBase64());
-                request.setImageUrl(imageUrl);
-            } catch (Exception e) {
-                log.error("Failed to upload image, continuing without it", e);
-            }
+        try {
+            request.setImageUrl(ConcurrentSteps.await(uploadStep));
+        } catch (RuntimeException e) {
+            log.error("Failed to upload image, continuing without it", e);
         }
 
         MaintenanceRequest saved = repository.save(request);
@@ -85,6 +128,36 @@ public class MaintenanceService {
         return mapToResponseDTO(saved);
     }
 
+    /**
+     * Saves the request with a keyword-based classification and returns
+     * straight away; {@link RequestProcessingPipeline} then refines the
+     * classification, uploads the image and notifies the admin.
+     */
+    @Transactional
+    @CacheEvict(value = "statistics", allEntries = true)
+    public MaintenanceResponseDTO acceptRequest(Long userId, MaintenanceRequestDTO dto) {
+        log.info("Accepting maintenance request for user: {}", userId);
+
+        AIClassificationResponse provisional = aiService.classifyByRules(dto.getTitle(), dto.getDescription());
+
+        MaintenanceRequest request = new MaintenanceRequest();
+        request.setUserId(userId);
+        request.setTitle(dto.getTitle());
+        request.setDescription(dto.getDescription());
+        request.setCategory(provisional.getCategory());
+        request.setPriority(provisional.getPriority());
+        request.setStatus(Status.PENDING);
+        request.setProcessingStage(ProcessingStage.ACCEPTED);
+
+        MaintenanceRequest saved = repository.save(request);
+        processingPipeline.submit(
+                new RequestProcessingPipeline.Job(saved.getId(), userId, saved.getTitle(),
+                        saved.getDescription(), dto.getImageBase64()),
+                this::getUserDetails);
+
+        return mapToResponseDTO(saved);
+    }
+
     public Page<MaintenanceResponseDTO> getAllRequests(Pageable pageable) {
         return repository.findAll(pageable).map(this::mapToResponseDTO);
     }
@@ -175,6 +248,10 @@ public class MaintenanceService {
     }
 
     public UserResponse getUserDetails(Long userId) {
+        return userDetailsCache.get(userId, this::fetchUserDetails);
+    }
+
+    private UserResponse fetchUserDetails(Long userId) {
         try {
             String url = userServiceUrl + "/api/users/" + userId;
             log.info("Fetching user details from: {}", url);
@@ -194,6 +271,17 @@ public class MaintenanceService {
         }
     }
 
+    private void deleteImageQuietly(String imageUrl) {
+        if (imageUrl == null) {
+            return;
+        }
+        try {
+            storageService.deleteImage(imageUrl);
+        } catch (Exception e) {
+            log.error("Failed to delete image", e);
+        }
+    }
+
     @Transactional
     @CacheEvict(value = "statistics", allEntries = true)
     public void deleteRequest(Long id) {
@@ -237,6 +325,8 @@ public class MaintenanceService {
         dto.setUpdatedAt(request.getUpdatedAt());
         dto.setResolvedAt(request.getResolvedAt());
         dto.setAdminNotes(request.getAdminNotes());
+        dto.setProcessingStage(request.getProcessingStage());
+        dto.setProcessingError(request.getProcessingError());
         return dto;
     }
 
@@ -0,0 +1,216 @@
+package com.homegenie.maintenanceservice.service;
+
+import com.homegenie.maintenanceservice.dto.AIClassificationResponse;
+import com.homegenie.maintenanceservice.dto.UserResponse;
+import com.homegenie.maintenanceservice.event.NotificationPublisher;
+import com.homegenie.maintenanceservice.exception.ResourceNotFoundException;
+import com.homegenie.maintenanceservice.model.ProcessingStage;
+import com.homegenie.maintenanceservice.repository.MaintenanceRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.Function;
+
+/**
+ * Finishes requests accepted by {@link MaintenanceService#acceptRequest}:
+ * model classification, then the image upload, then the admin notification.
+ * Each stage runs on its own bounded pool so a slow classifier can't hold up
+ * uploads for requests already past it. Progress is written to the request's
+ * {@code processingStage}. A stage never runs on the submitting thread: when
+ * its queue is full the request is marked {@code FAILED} with
+ * "{@value #QUEUE_FULL}", which the resident sees on the request.
+ */
+@Component
+@Slf4j
+public class RequestProcessingPipeline {
+
+    static final String QUEUE_FULL = "Processing queue full";
+
+    private final MaintenanceRepository repository;
+    private final AIClassificationService aiService;
+    private final StorageService storageService;
+    private final NotificationPublisher notificationPublisher;
+    private final CacheManager cacheManager;
+    private final Executor classificationExecutor;
+    private final Executor storageExecutor;
+    private final Executor notificationExecutor;
+
+    @Value("${admin.email:admin@homegenie.com}")
+    private String adminEmail;
+
+    @Autowired
+    public RequestProcessingPipeline(
+            MaintenanceRepository repository,
+            AIClassificationService aiService,
+            StorageService storageService,
+            NotificationPublisher notificationPublisher,
+            CacheManager cacheManager,
+            @Value("${maintenance.processing.classification.threads:4}") int classificationThreads,
+            @Value("${maintenance.processing.storage.threads:2}") int storageThreads,
+            @Value("${maintenance.processing.notification.threads:2}") int notificationThreads,
+            @Value("${maintenance.processing.queue-capacity:100}") int queueCapacity) {
+        this(repository, aiService, storageService, notificationPublisher, cacheManager,
+                newExecutor("classify-", classificationThreads, queueCapacity),
+                newExecutor("store-", storageThreads, queueCapacity),
+                newExecutor("notify-", notificationThreads, queueCapacity));
+    }
+
+    RequestProcessingPipeline(MaintenanceRepository repository, AIClassificationService aiService,
+                              StorageService storageService, NotificationPublisher notificationPublisher,
+                              CacheManager cacheManager, Executor classificationExecutor,
+                              Executor storageExecutor, Executor notificationExecutor) {
+        this.repository = repository;
+        this.aiService = aiService;
+        this.storageService = storageService;
+        this.notificationPublisher = notificationPublisher;
+        this.cacheManager = cacheManager;
+        this.classificationExecutor = classificationExecutor;
+        this.storageExecutor = storageExecutor;
+        this.notificationExecutor = notificationExecutor;
+    }
+
+    /**
+     * Starts processing once the surrounding transaction has committed, so the
+     * stages never look for a row that isn't visible yet.
+     */
+    public void submit(Job job, Function<Long, UserResponse> userLookup) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    start(job, userLookup);
+                }
+            });
+        } else {
+            start(job, userLookup);
+        }
+    }
+
+    CompletableFuture<Void> start(Job job, Function<Long, UserResponse> userLookup) {
+        CompletableFuture<AIClassificationResponse> classified;
+        try {
+            classified = CompletableFuture.supplyAsync(() -> classify(job), classificationExecutor);
+        } catch (RejectedExecutionException e) {
+            classified = CompletableFuture.failedFuture(e);
+        }
+        return classified
+                .thenApplyAsync(classification -> storeImage(job, classification), storageExecutor)
+                .thenAcceptAsync(classification -> notifyAdmin(job, classification, userLookup), notificationExecutor)
+                .whenComplete((ignored, error) -> {
+                    if (error != null) {
+                        Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+                        if (cause instanceof RejectedExecutionException) {
+                            log.warn("Processing queue full, maintenance request {} not processed", job.requestId());
+                            repository.updateProcessingStage(job.requestId(), ProcessingStage.FAILED, QUEUE_FULL);
+                            return;
+                        }
+                        log.error("Processing failed for maintenance request {}", job.requestId(), cause);
+                        repository.updateProcessingStage(job.requestId(), ProcessingStage.FAILED, cause.getMessage());
+                    }
+                });
+    }
+
+    private AIClassificationResponse classify(Job job) {
+        AIClassificationResponse result = aiService.classifyRequest(job.title(), job.description());
+        log.info("Refined classification for request {} - Category: {}, Priority: {}",
+                job.requestId(), result.getCategory(), result.getPriority());
+        requireUpdated(job, repository.updateClassification(job.requestId(), result.getCategory(),
+                result.getPriority(), ProcessingStage.CLASSIFIED));
+        // The priority may have changed since the request was counted
+        Cache statistics = cacheManager.getCache("statistics");
+        if (statistics != null) {
+            statistics.clear();
+        }
+        return result;
+    }
+
+    private AIClassificationResponse storeImage(Job job, AIClassificationResponse classification) {
+        if (job.imageBase64() == null || job.imageBase64().isEmpty()) {
+            return classification;
+        }
+        String imageUrl;
+        try {
+            imageUrl = storageService.uploadImage(job.imageBase64());
+        } catch (Exception e) {
+            log.error("Failed to upload image for request {}, continuing without it", job.requestId(), e);
+            repository.updateProcessingStage(job.requestId(), ProcessingStage.CLASSIFIED,
+                    "Image upload failed");
+            return classification;
+        }
+        if (repository.updateImage(job.requestId(), imageUrl, ProcessingStage.IMAGE_STORED) == 0) {
+            storageService.deleteImage(imageUrl);
+            requireUpdated(job, 0);
+        }
+        return classification;
+    }
+
+    private void notifyAdmin(Job job, AIClassificationResponse classification,
+                             Function<Long, UserResponse> userLookup) {
+        String error = null;
+        try {
+            UserResponse user = userLookup.apply(job.userId());
+            notificationPublisher.publishNewRequest(
+                    adminEmail,
+                    user.getFullName(),
+                    job.title(),
+                    classification.getCategory().toString(),
+                    classification.getPriority().toString(),
+                    job.requestId());
+            log.info("New request notification published for request ID: {}", job.requestId());
+        } catch (Exception e) {
+            log.error("Failed to publish new request notification", e);
+            error = "Notification failed";
+        }
+        repository.updateProcessingStage(job.requestId(), ProcessingStage.COMPLETED, error);
+    }
+
+    private static void requireUpdated(Job job, int rows) {
+        if (rows == 0) {
+            throw new ResourceNotFoundException(
+                    "Maintenance request " + job.requestId() + " was deleted during processing");
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        for (Executor executor : List.of(classificationExecutor, storageExecutor, notificationExecutor)) {
+            if (executor instanceof ThreadPoolTaskExecutor pool) {
+                pool.shutdown();
+            }
+        }
+    }
+
+    private static ThreadPoolTaskExecutor newExecutor(String prefix, int threads, int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix(prefix);
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * What the stages need from the original submission; the image is only
+     * held here, never persisted, until it has been uploaded.
+     */
+    public record Job(Long requestId, Long userId, String title, String description, String imageBase64) {
+    }
+}
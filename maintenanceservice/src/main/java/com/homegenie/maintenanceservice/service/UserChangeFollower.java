@@ -0,0 +1,133 @@
+package com.homegenie.maintenanceservice.service;
+
+import com.homegenie.maintenanceservice.dto.UserChange;
+import com.homegenie.maintenanceservice.dto.UserChangeBatch;
+import com.homegenie.maintenanceservice.security.InternalIdentitySigner;
+import com.homegenie.maintenanceservice.security.InternalIdentityVerifier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.time.Duration;
+
+/**
+ * Follows user-service's change feed ({@code /internal/user-events}) with a
+ * long poll and evicts exactly the users that changed from
+ * {@link UserDetailsCache}, so those caches can live for hours. Every
+ * instance follows the feed itself. Until the first successful poll, and
+ * whenever user-service reports that our offset was purged, everything
+ * cached is dropped instead.
+ */
+@Component
+@ConditionalOnProperty(value = "maintenance.user-cache.change-feed.enabled", matchIfMissing = true)
+@Slf4j
+public class UserChangeFollower implements SmartLifecycle {
+
+    private final RestTemplate restTemplate;
+    private final UserDetailsCache userDetailsCache;
+    private final String userServiceUrl;
+    private final Duration wait;
+    private final Duration retryDelay;
+
+    private volatile Long cursor;
+    private volatile boolean running;
+    private Thread thread;
+
+    @Autowired
+    public UserChangeFollower(RestTemplateBuilder restTemplateBuilder, UserDetailsCache userDetailsCache,
+                              InternalIdentitySigner identitySigner,
+                              @Value("${user.service.url:http://localhost:8081}") String userServiceUrl,
+                              @Value("${maintenance.user-cache.change-feed.wait:25s}") Duration wait,
+                              @Value("${maintenance.user-cache.change-feed.retry-delay:5s}") Duration retryDelay) {
+        this(restTemplateBuilder
+                        .setConnectTimeout(Duration.ofSeconds(5))
+                        .setReadTimeout(wait.plusSeconds(10))
+                        // user-service only serves /internal/** to signed service calls
+                        .additionalInterceptors((request, body, execution) -> {
+                            request.getHeaders().set(InternalIdentityVerifier.HEADER, identitySigner.signService());
+                            return execution.execute(request, body);
+                        })
+                        .build(),
+                userDetailsCache, userServiceUrl, wait, retryDelay);
+    }
+
+    UserChangeFollower(RestTemplate restTemplate, UserDetailsCache userDetailsCache, String userServiceUrl,
+                       Duration wait, Duration retryDelay) {
+        this.restTemplate = restTemplate;
+        this.userDetailsCache = userDetailsCache;
+        this.userServiceUrl = userServiceUrl;
+        this.wait = wait;
+        this.retryDelay = retryDelay;
+    }
+
+    void pollOnce() {
+        UriComponentsBuilder uri = UriComponentsBuilder.fromHttpUrl(userServiceUrl)
+                .path("/internal/user-events")
+                .queryParam("wait", wait.toSeconds());
+        Long after = cursor;
+        if (after != null) {
+            uri.queryParam("after", after);
+        }
+        UserChangeBatch batch = restTemplate.getForObject(uri.toUriString(), UserChangeBatch.class);
+        if (batch == null) {
+            return;
+        }
+
+        if (after == null || batch.isReset()) {
+            // Anything cached before now may have missed its event
+            userDetailsCache.evictAll();
+            log.info("Following user changes from sequence {}", batch.getNext());
+        } else {
+            for (UserChange change : batch.getEvents()) {
+                userDetailsCache.evict(change.getUserId());
+            }
+            if (!batch.getEvents().isEmpty()) {
+                log.debug("Applied {} user changes up to {}", batch.getEvents().size(), batch.getNext());
+            }
+        }
+        cursor = batch.getNext();
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                pollOnce();
+            } catch (Exception e) {
+                log.warn("Could not read user changes from user-service: {}", e.getMessage());
+                try {
+                    Thread.sleep(retryDelay.toMillis());
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        thread = new Thread(this::run, "user-change-follower");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
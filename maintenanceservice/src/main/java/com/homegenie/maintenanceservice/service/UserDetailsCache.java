@@ -0,0 +1,64 @@
+package com.homegenie.maintenanceservice.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.homegenie.maintenanceservice.dto.UserResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Read-through cache of user-service's {@code /api/users/{id}} answers, kept
+ * in this instance's memory so creates, updates and notifications don't pay
+ * a cross-service call each time. Concurrent misses for the same id share one
+ * lookup, and failed lookups aren't cached. {@link UserChangeFollower} evicts
+ * users as user-service reports them changed; the TTL is only a backstop.
+ */
+@Component
+@Slf4j
+public class UserDetailsCache {
+
+    private final Cache<Long, UserResponse> users;
+
+    @Autowired
+    public UserDetailsCache(MeterRegistry meterRegistry,
+                            @Value("${maintenance.user-cache.maximum-size:2000}") long maximumSize,
+                            @Value("${maintenance.user-cache.ttl:30m}") Duration ttl) {
+        this(maximumSize, ttl);
+        CaffeineCacheMetrics.monitor(meterRegistry, users, "maintenance.users");
+    }
+
+    UserDetailsCache(long maximumSize, Duration ttl) {
+        this.users = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    public UserResponse get(Long userId, Function<Long, UserResponse> loader) {
+        return users.get(userId, loader);
+    }
+
+    /**
+     * Drops the user, and the technician list in case they're on it.
+     */
+    @CacheEvict(value = "technicians", allEntries = true)
+    public void evict(Long userId) {
+        users.invalidate(userId);
+        log.debug("Evicted cached details for user {}", userId);
+    }
+
+    @CacheEvict(value = "technicians", allEntries = true)
+    public void evictAll() {
+        users.invalidateAll();
+        log.info("Evicted all cached user details");
+    }
+}
@@ -5,7 +5,6 @@ import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.ByteArrayResource;
 import org.springframework.http.MediaType;
 import org.springframework.http.client.MultipartBodyBuilder;
 import org.springframework.stereotype.Service;
@@ -36,13 +35,9 @@ public class VoiceProcessingService {
         log.info("Converting speech to text for file: {}", audioFile.getOriginalFilename());
 
         try {
+            // Streams from the multipart temp file instead of copying the upload onto the heap
             MultipartBodyBuilder builder = new MultipartBodyBuilder();
-            builder.part("audio", new ByteArrayResource(audioFile.getBytes()) {
-                @Override
-                public String getFilename() {
-                    return audioFile.getOriginalFilename();
-                }
-            }, MediaType.APPLICATION_OCTET_STREAM);
+            builder.part("audio", audioFile.getResource(), MediaType.APPLICATION_OCTET_STREAM);
 
             return webClient.post()
                     .uri(voiceServiceUrl + "/api/speech-to-text")
@@ -0,0 +1,81 @@
+package com.homegenie.maintenanceservice.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Instant;
+import java.util.Collections;
+
+import static com.homegenie.maintenanceservice.security.InternalIdentityVerifierTest.SECRET;
+import static com.homegenie.maintenanceservice.security.InternalIdentityVerifierTest.claims;
+import static com.homegenie.maintenanceservice.security.InternalIdentityVerifierTest.sign;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InternalIdentityFilterTest {
+
+    private final InternalIdentityFilter filter = new InternalIdentityFilter(new InternalIdentityVerifier(SECRET));
+
+    @Test
+    @DisplayName("Should answer 401 to a spoofed X-User-Id without a signed header")
+    void spoofedUserId_Rejected() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/maintenance/my-requests");
+        request.addHeader("X-User-Id", "1");
+        request.addHeader("X-User-Role", "ADMIN");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, response, chain);
+
+        assertThat(response.getStatus()).isEqualTo(401);
+        assertThat(chain.getRequest()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should answer 401 when the signed header is invalid")
+    void invalidHeader_Rejected() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/maintenance/my-requests");
+        request.addHeader(InternalIdentityVerifier.HEADER,
+                sign(SECRET, claims("7", "RESIDENT", "", Instant.now().minusSeconds(1))));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, response, chain);
+
+        assertThat(response.getStatus()).isEqualTo(401);
+        assertThat(chain.getRequest()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should replace X-User-* headers with the signed identity")
+    void validHeader_ReplacesIdentityHeaders() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/maintenance/my-requests");
+        request.addHeader(InternalIdentityVerifier.HEADER,
+                sign(SECRET, claims("7", "RESIDENT", "resident@example.com", Instant.now().plusSeconds(60))));
+        request.addHeader("X-User-Id", "1");
+        request.addHeader("X-User-Role", "ADMIN");
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        HttpServletRequest forwarded = (HttpServletRequest) chain.getRequest();
+        assertThat(forwarded.getHeader("X-User-Id")).isEqualTo("7");
+        assertThat(forwarded.getHeader("x-user-role")).isEqualTo("RESIDENT");
+        assertThat(forwarded.getHeader("X-User-Email")).isEqualTo("resident@example.com");
+        assertThat(Collections.list(forwarded.getHeaders("X-User-Id"))).containsExactly("7");
+    }
+
+    @Test
+    @DisplayName("Should pass requests without identity headers through untouched")
+    void noIdentityHeaders_PassThrough() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/actuator/health");
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertThat(chain.getRequest()).isSameAs(request);
+    }
+}
@@ -0,0 +1,96 @@
+package com.homegenie.maintenanceservice.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ConcurrentStepsTest {
+
+    private final List<Runnable> queued = new ArrayList<>();
+    private final List<String> discarded = new ArrayList<>();
+    private ConcurrentSteps steps;
+
+    @BeforeEach
+    void setUp() {
+        // Holds the work back so the test decides when it finishes
+        Executor manual = queued::add;
+        steps = new ConcurrentSteps(manual, new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("Should hand a result that arrives after the timeout to discardLate")
+    void lateResult_Discarded() {
+        CompletableFuture<String> step = steps.run("upload", Duration.ofMillis(10), () -> "https://bucket/image.jpg",
+                discarded::add);
+
+        assertThatThrownBy(step::join)
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(TimeoutException.class);
+        queued.forEach(Runnable::run);
+
+        assertThat(discarded).containsExactly("https://bucket/image.jpg");
+    }
+
+    @Test
+    @DisplayName("Should return a result that arrives in time without discarding it")
+    void resultInTime_Returned() {
+        CompletableFuture<String> step = steps.run("upload", Duration.ofSeconds(10), () -> "https://bucket/image.jpg",
+                discarded::add);
+
+        queued.forEach(Runnable::run);
+
+        assertThat(ConcurrentSteps.await(step)).isEqualTo("https://bucket/image.jpg");
+        assertThat(discarded).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should rethrow what the step threw")
+    void failure_Rethrown() {
+        CompletableFuture<String> step = steps.run("upload", Duration.ofSeconds(10), () -> {
+            throw new IllegalStateException("Upload failed");
+        }, discarded::add);
+
+        queued.forEach(Runnable::run);
+
+        assertThatThrownBy(() -> ConcurrentSteps.await(step))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Upload failed");
+        assertThat(discarded).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should reject a step the pool has no room for instead of running it on the caller")
+    void saturatedPool_Rejected() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ConcurrentSteps saturated = new ConcurrentSteps(task -> {
+            throw new RejectedExecutionException("Pool saturated");
+        }, meterRegistry);
+        AtomicBoolean ran = new AtomicBoolean();
+
+        CompletableFuture<String> step = saturated.run("upload", Duration.ofSeconds(10), () -> {
+            ran.set(true);
+            return "https://bucket/image.jpg";
+        }, discarded::add);
+
+        assertThatThrownBy(() -> ConcurrentSteps.await(step))
+                .isInstanceOf(RejectedExecutionException.class)
+                .satisfies(e -> assertThat(ConcurrentSteps.isUnavailable((RuntimeException) e)).isTrue());
+        assertThat(ran).isFalse();
+        assertThat(meterRegistry.get("maintenance.create.step").tag("outcome", "rejected").timer().count())
+                .isEqualTo(1);
+    }
+}
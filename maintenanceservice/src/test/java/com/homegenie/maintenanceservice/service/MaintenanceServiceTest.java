@@ -6,6 +6,7 @@ import com.homegenie.maintenanceservice.exception.ResourceNotFoundException;
 import com.homegenie.maintenanceservice.exception.ServiceUnavailableException;
 import com.homegenie.maintenanceservice.model.*;
 import com.homegenie.maintenanceservice.repository.MaintenanceRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -13,6 +14,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
@@ -21,10 +23,14 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -49,6 +55,15 @@ class MaintenanceServiceTest {
     @Mock
     private RestTemplate restTemplate;
 
+    @Mock
+    private RequestProcessingPipeline processingPipeline;
+
+    @Spy
+    private UserDetailsCache userDetailsCache = new UserDetailsCache(100, Duration.ofMinutes(5));
+
+    @Spy
+    private ConcurrentSteps concurrentSteps = new ConcurrentSteps(Runnable::run, new SimpleMeterRegistry());
+
     @InjectMocks
     private MaintenanceService maintenanceService;
 
@@ -145,6 +160,107 @@ class MaintenanceServiceTest {
 
             assertThat(response).isNotNull();
         }
+
+        @Test
+        @DisplayName("Should delete the uploaded image when the user lookup fails")
+        void createRequest_UserLookupFails() {
+            requestDTO.setImageBase64("base64EncodedImage");
+            AIClassificationResponse aiResult = new AIClassificationResponse();
+            aiResult.setCategory(Category.PLUMBING);
+            aiResult.setPriority(Priority.HIGH);
+
+            when(restTemplate.getForObject(anyString(), eq(UserResponse.class)))
+                    .thenThrow(new RuntimeException("Connection refused"));
+            when(aiService.classifyRequest(anyString(), anyString())).thenReturn(aiResult);
+            when(s3Service.uploadImage(anyString())).thenReturn("https://bucket/image.jpg");
+
+            assertThatThrownBy(() -> maintenanceService.createRequest(1L, requestDTO))
+                    .isInstanceOf(ServiceUnavailableException.class);
+
+            verify(s3Service).deleteImage("https://bucket/image.jpg");
+            verify(repository, never()).save(any());
+        }
+
+        @Test
+        @DisplayName("Should fall back to rules and skip the image when the step pool is saturated")
+        void createRequest_StepsRejected() {
+            requestDTO.setImageBase64("base64EncodedImage");
+            AIClassificationResponse ruleResult = new AIClassificationResponse();
+            ruleResult.setCategory(Category.PLUMBING);
+            ruleResult.setPriority(Priority.MODERATE);
+            useSteps(firstStepOnly());
+
+            when(restTemplate.getForObject(anyString(), eq(UserResponse.class))).thenReturn(testUser);
+            when(aiService.classifyByRules(anyString(), anyString())).thenReturn(ruleResult);
+            when(repository.save(any(MaintenanceRequest.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+            MaintenanceResponseDTO response = maintenanceService.createRequest(1L, requestDTO);
+
+            assertThat(response.getPriority()).isEqualTo(Priority.MODERATE);
+            assertThat(response.getImageUrl()).isNull();
+            verify(aiService, never()).classifyRequest(anyString(), anyString());
+            verify(s3Service, never()).uploadImage(anyString());
+        }
+
+        @Test
+        @DisplayName("Should answer 503 when the user lookup can't get a thread")
+        void createRequest_UserStepRejected() {
+            useSteps(task -> {
+                throw new RejectedExecutionException("Pool saturated");
+            });
+
+            assertThatThrownBy(() -> maintenanceService.createRequest(1L, requestDTO))
+                    .isInstanceOf(ServiceUnavailableException.class);
+
+            verify(restTemplate, never()).getForObject(anyString(), any());
+            verify(repository, never()).save(any());
+        }
+
+        private void useSteps(Executor executor) {
+            ReflectionTestUtils.setField(maintenanceService, "concurrentSteps",
+                    new ConcurrentSteps(executor, new SimpleMeterRegistry()));
+        }
+
+        // Runs the user lookup, which is submitted first, and rejects the rest
+        private Executor firstStepOnly() {
+            AtomicInteger submitted = new AtomicInteger();
+            return task -> {
+                if (submitted.getAndIncrement() > 0) {
+                    throw new RejectedExecutionException("Pool saturated");
+                }
+                task.run();
+            };
+        }
+    }
+
+    @Nested
+    @DisplayName("Accept Request Tests")
+    class AcceptRequestTests {
+
+        @Test
+        @DisplayName("Should save with provisional classification and hand off to the pipeline")
+        void acceptRequest_SubmitsToPipeline() {
+            requestDTO.setImageBase64("base64EncodedImage");
+            AIClassificationResponse provisional = new AIClassificationResponse();
+            provisional.setCategory(Category.PLUMBING);
+            provisional.setPriority(Priority.HIGH);
+            testRequest.setProcessingStage(ProcessingStage.ACCEPTED);
+
+            when(aiService.classifyByRules(anyString(), anyString())).thenReturn(provisional);
+            when(repository.save(any(MaintenanceRequest.class))).thenReturn(testRequest);
+
+            MaintenanceResponseDTO response = maintenanceService.acceptRequest(1L, requestDTO);
+
+            assertThat(response.getId()).isEqualTo(1L);
+            assertThat(response.getStatus()).isEqualTo(Status.PENDING);
+            assertThat(response.getProcessingStage()).isEqualTo(ProcessingStage.ACCEPTED);
+            verify(processingPipeline).submit(
+                    eq(new RequestProcessingPipeline.Job(1L, 1L, "Leaking Pipe", "Kitchen pipe is leaking",
+                            "base64EncodedImage")),
+                    any());
+            verify(aiService, never()).classifyRequest(anyString(), anyString());
+            verifyNoInteractions(restTemplate, s3Service, notificationPublisher);
+        }
     }
 
     @Nested
@@ -342,5 +458,32 @@ class MaintenanceServiceTest {
                     .isInstanceOf(ServiceUnavailableException.class)
                     .hasMessageContaining("User service is unavailable");
         }
+
+        @Test
+        @DisplayName("Should serve repeat lookups from the cache until evicted")
+        void getUserDetails_Cached() {
+            when(restTemplate.getForObject(anyString(), eq(UserResponse.class))).thenReturn(testUser);
+
+            maintenanceService.getUserDetails(1L);
+            maintenanceService.getUserDetails(1L);
+            verify(restTemplate, times(1)).getForObject(anyString(), eq(UserResponse.class));
+
+            userDetailsCache.evict(1L);
+            maintenanceService.getUserDetails(1L);
+            verify(restTemplate, times(2)).getForObject(anyString(), eq(UserResponse.class));
+        }
+
+        @Test
+        @DisplayName("Should not cache a failed lookup")
+        void getUserDetails_FailureNotCached() {
+            when(restTemplate.getForObject(anyString(), eq(UserResponse.class)))
+                    .thenThrow(new RuntimeException("Connection refused"))
+                    .thenReturn(testUser);
+
+            assertThatThrownBy(() -> maintenanceService.getUserDetails(1L))
+                    .isInstanceOf(ServiceUnavailableException.class);
+
+            assertThat(maintenanceService.getUserDetails(1L).getEmail()).isEqualTo("user@example.com");
+        }
     }
 }
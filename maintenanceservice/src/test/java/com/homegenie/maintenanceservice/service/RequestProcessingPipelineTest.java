@@ -0,0 +1,127 @@
+package com.homegenie.maintenanceservice.service;
+
+import com.homegenie.maintenanceservice.dto.AIClassificationResponse;
+import com.homegenie.maintenanceservice.dto.UserResponse;
+import com.homegenie.maintenanceservice.event.NotificationPublisher;
+import com.homegenie.maintenanceservice.model.Category;
+import com.homegenie.maintenanceservice.model.Priority;
+import com.homegenie.maintenanceservice.model.ProcessingStage;
+import com.homegenie.maintenanceservice.repository.MaintenanceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RequestProcessingPipelineTest {
+
+    @Mock
+    private MaintenanceRepository repository;
+
+    @Mock
+    private AIClassificationService aiService;
+
+    @Mock
+    private StorageService storageService;
+
+    @Mock
+    private NotificationPublisher notificationPublisher;
+
+    private RequestProcessingPipeline pipeline;
+    private UserResponse resident;
+
+    @BeforeEach
+    void setUp() {
+        Executor direct = Runnable::run;
+        pipeline = new RequestProcessingPipeline(repository, aiService, storageService, notificationPublisher,
+                new ConcurrentMapCacheManager("statistics"), direct, direct, direct);
+        ReflectionTestUtils.setField(pipeline, "adminEmail", "admin@homegenie.com");
+
+        AIClassificationResponse classification = new AIClassificationResponse();
+        classification.setCategory(Category.PLUMBING);
+        classification.setPriority(Priority.CRITICAL);
+        lenient().when(aiService.classifyRequest(anyString(), anyString())).thenReturn(classification);
+
+        resident = new UserResponse();
+        resident.setId(7L);
+        resident.setFullName("Test User");
+    }
+
+    @Test
+    @DisplayName("Should classify, upload and notify in order, recording each stage")
+    void start_RunsStagesInOrder() {
+        when(repository.updateClassification(1L, Category.PLUMBING, Priority.CRITICAL, ProcessingStage.CLASSIFIED))
+                .thenReturn(1);
+        when(storageService.uploadImage("image")).thenReturn("https://bucket/image.jpg");
+        when(repository.updateImage(1L, "https://bucket/image.jpg", ProcessingStage.IMAGE_STORED)).thenReturn(1);
+
+        pipeline.start(new RequestProcessingPipeline.Job(1L, 7L, "Leak", "Pipe burst", "image"), id -> resident)
+                .join();
+
+        InOrder order = inOrder(repository, notificationPublisher);
+        order.verify(repository).updateClassification(1L, Category.PLUMBING, Priority.CRITICAL,
+                ProcessingStage.CLASSIFIED);
+        order.verify(repository).updateImage(1L, "https://bucket/image.jpg", ProcessingStage.IMAGE_STORED);
+        order.verify(notificationPublisher).publishNewRequest(
+                "admin@homegenie.com", "Test User", "Leak", "PLUMBING", "CRITICAL", 1L);
+        order.verify(repository).updateProcessingStage(1L, ProcessingStage.COMPLETED, null);
+    }
+
+    @Test
+    @DisplayName("Should note a failed upload and still notify")
+    void start_ImageUploadFails() {
+        when(repository.updateClassification(anyLong(), any(), any(), any())).thenReturn(1);
+        when(storageService.uploadImage("image")).thenThrow(new RuntimeException("Upload failed"));
+
+        pipeline.start(new RequestProcessingPipeline.Job(1L, 7L, "Leak", "Pipe burst", "image"), id -> resident)
+                .join();
+
+        verify(repository).updateProcessingStage(1L, ProcessingStage.CLASSIFIED, "Image upload failed");
+        verify(repository, never()).updateImage(anyLong(), anyString(), any());
+        verify(notificationPublisher).publishNewRequest(anyString(), anyString(), anyString(), anyString(),
+                anyString(), eq(1L));
+        verify(repository).updateProcessingStage(1L, ProcessingStage.COMPLETED, null);
+    }
+
+    @Test
+    @DisplayName("Should stop and mark FAILED when the request was deleted mid-way")
+    void start_RequestDeleted() {
+        when(repository.updateClassification(anyLong(), any(), any(), any())).thenReturn(0);
+
+        pipeline.start(new RequestProcessingPipeline.Job(1L, 7L, "Leak", "Pipe burst", "image"), id -> resident)
+                .exceptionally(e -> null)
+                .join();
+
+        verify(repository).updateProcessingStage(eq(1L), eq(ProcessingStage.FAILED), contains("deleted"));
+        verifyNoInteractions(storageService, notificationPublisher);
+    }
+
+    @Test
+    @DisplayName("Should mark FAILED instead of running a stage on the caller when a queue is full")
+    void start_QueueFull() {
+        Executor direct = Runnable::run;
+        Executor full = task -> {
+            throw new RejectedExecutionException("Queue full");
+        };
+        pipeline = new RequestProcessingPipeline(repository, aiService, storageService, notificationPublisher,
+                new ConcurrentMapCacheManager("statistics"), full, direct, direct);
+
+        pipeline.start(new RequestProcessingPipeline.Job(1L, 7L, "Leak", "Pipe burst", "image"), id -> resident)
+                .exceptionally(e -> null)
+                .join();
+
+        verify(repository).updateProcessingStage(1L, ProcessingStage.FAILED, RequestProcessingPipeline.QUEUE_FULL);
+        verifyNoInteractions(aiService, storageService, notificationPublisher);
+    }
+}
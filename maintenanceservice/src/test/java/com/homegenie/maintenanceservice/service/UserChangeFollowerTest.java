@@ -0,0 +1,101 @@
+package com.homegenie.maintenanceservice.service;
+
+import com.homegenie.maintenanceservice.dto.UserChange;
+import com.homegenie.maintenanceservice.dto.UserChangeBatch;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserChangeFollowerTest {
+
+    private static final String FIRST_POLL = "http://user-service/internal/user-events?wait=25";
+
+    @Mock
+    private RestTemplate restTemplate;
+
+    @Mock
+    private UserDetailsCache userDetailsCache;
+
+    private UserChangeFollower follower;
+
+    @BeforeEach
+    void setUp() {
+        follower = new UserChangeFollower(restTemplate, userDetailsCache, "http://user-service",
+                Duration.ofSeconds(25), Duration.ofMillis(10));
+    }
+
+    @Test
+    @DisplayName("Should drop everything on the first poll and continue from the head")
+    void firstPoll_EvictsAllAndStartsFromHead() {
+        when(restTemplate.getForObject(FIRST_POLL, UserChangeBatch.class)).thenReturn(batch(40L, false));
+        when(restTemplate.getForObject(FIRST_POLL + "&after=40", UserChangeBatch.class))
+                .thenReturn(batch(42L, false, change(41L, 7L), change(42L, 9L)));
+
+        follower.pollOnce();
+        follower.pollOnce();
+
+        verify(userDetailsCache).evictAll();
+        verify(userDetailsCache).evict(7L);
+        verify(userDetailsCache).evict(9L);
+    }
+
+    @Test
+    @DisplayName("Should drop everything when the feed no longer has our offset")
+    void reset_EvictsAll() {
+        when(restTemplate.getForObject(FIRST_POLL, UserChangeBatch.class)).thenReturn(batch(40L, false));
+        when(restTemplate.getForObject(FIRST_POLL + "&after=40", UserChangeBatch.class))
+                .thenReturn(batch(90L, true, change(90L, 7L)));
+
+        follower.pollOnce();
+        follower.pollOnce();
+
+        verify(userDetailsCache, times(2)).evictAll();
+        verify(userDetailsCache, never()).evict(anyLong());
+    }
+
+    @Test
+    @DisplayName("Should keep its offset when user-service is unreachable")
+    void failure_KeepsOffset() {
+        when(restTemplate.getForObject(FIRST_POLL, UserChangeBatch.class)).thenReturn(batch(40L, false));
+        when(restTemplate.getForObject(eq(FIRST_POLL + "&after=40"), eq(UserChangeBatch.class)))
+                .thenThrow(new ResourceAccessException("Connection refused"))
+                .thenReturn(batch(41L, false, change(41L, 7L)));
+
+        follower.pollOnce();
+        assertThatThrownBy(() -> follower.pollOnce()).isInstanceOf(ResourceAccessException.class);
+        follower.pollOnce();
+
+        verify(userDetailsCache).evictAll();
+        verify(userDetailsCache).evict(7L);
+    }
+
+    private static UserChangeBatch batch(Long next, boolean reset, UserChange... changes) {
+        UserChangeBatch batch = new UserChangeBatch();
+        batch.setEvents(List.of(changes));
+        batch.setNext(next);
+        batch.setReset(reset);
+        return batch;
+    }
+
+    private static UserChange change(Long sequence, Long userId) {
+        UserChange change = new UserChange();
+        change.setSequence(sequence);
+        change.setUserId(userId);
+        change.setType("PROFILE_UPDATED");
+        return change;
+    }
+}
@@ -0,0 +1,113 @@
+package com.homegenie.userservice.service;
+
+import com.homegenie.userservice.dto.UserResponse;
+import com.homegenie.userservice.dto.UserSummary;
+import com.homegenie.userservice.model.User;
+import com.homegenie.userservice.model.UserRole;
+import com.homegenie.userservice.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Enriching a page of maintenance requests: {@code perIdLoop} is what a
+ * consumer does today, one {@link UserService#getUserById} per user, against
+ * {@code batch}, one {@link UserService#getUserSummaries} call. The repository
+ * is an in-memory stub that charges {@code roundTripMicros} per query, standing
+ * in for the database (and, for a remote consumer, the HTTP hop). Run with:
+ * <pre>mvn -Pbenchmark compile exec:exec -Dbenchmark=UserBatchLookupBenchmark</pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UserBatchLookupBenchmark {
+
+    @Param({"10", "50", "100"})
+    int users;
+
+    @Param({"0", "250"})
+    long roundTripMicros;
+
+    private UserService userService;
+    private List<Long> ids;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Map<Long, User> table = new HashMap<>();
+        ids = new ArrayList<>();
+        for (long id = 1; id <= users; id++) {
+            User user = new User();
+            user.setId(id);
+            user.setEmail("user" + id + "@example.com");
+            user.setFullName("User " + id);
+            user.setRole(id % 5 == 0 ? UserRole.TECHNICIAN : UserRole.RESIDENT);
+            user.setActive(true);
+            table.put(id, user);
+            ids.add(id);
+        }
+        // Nothing is cached, so each lookup pays its round trip
+        userService = new UserService(stubRepository(table, TimeUnit.MICROSECONDS.toNanos(roundTripMicros)),
+                null, null, null, new UserLookupCache(0, Duration.ZERO, null, new SimpleMeterRegistry()));
+    }
+
+    @Benchmark
+    public List<UserResponse> perIdLoop() {
+        List<UserResponse> result = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            result.add(userService.getUserById(id));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public Map<Long, UserSummary> batch() {
+        return userService.getUserSummaries(ids);
+    }
+
+    private static UserRepository stubRepository(Map<Long, User> table, long roundTripNanos) {
+        return (UserRepository) Proxy.newProxyInstance(UserRepository.class.getClassLoader(),
+                new Class<?>[]{UserRepository.class}, (proxy, method, args) -> {
+                    if (roundTripNanos > 0) {
+                        LockSupport.parkNanos(roundTripNanos);
+                    }
+                    switch (method.getName()) {
+                        case "findById":
+                            return Optional.ofNullable(table.get((Long) args[0]));
+                        case "findAllById":
+                            List<User> found = new ArrayList<>();
+                            for (Object id : (Iterable<?>) args[0]) {
+                                User user = table.get((Long) id);
+                                if (user != null) {
+                                    found.add(user);
+                                }
+                            }
+                            return found;
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+}
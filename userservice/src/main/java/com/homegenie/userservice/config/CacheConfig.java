@@ -0,0 +1,40 @@
+package com.homegenie.userservice.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+
+import java.time.Duration;
+
+/**
+ * Shared second level for {@link com.homegenie.userservice.service.UserLookupCache},
+ * so a cold instance doesn't go to Postgres for users another one already
+ * loaded. Only in prod, and only when {@code user.cache.redis.enabled}.
+ */
+@Configuration
+@Profile("prod")
+@ConditionalOnProperty("user.cache.redis.enabled")
+public class CacheConfig {
+
+    @Bean
+    public CacheManager userCacheManager(RedisConnectionFactory connectionFactory,
+                                         @Value("${user.cache.redis.ttl:1h}") Duration ttl) {
+        return RedisCacheManager.builder(connectionFactory)
+                .cacheDefaults(RedisCacheConfiguration.defaultCacheConfig()
+                        .entryTtl(ttl)
+                        .prefixCacheNameWith("user-service::")
+                        .disableCachingNullValues()
+                        .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(
+                                new GenericJackson2JsonRedisSerializer())))
+                .enableStatistics()
+                .build();
+    }
+}
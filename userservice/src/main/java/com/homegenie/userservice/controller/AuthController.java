@@ -1,6 +1,8 @@
 package com.homegenie.userservice.controller;
 
 import com.homegenie.userservice.dto.*;
+import com.homegenie.userservice.exception.AuthenticationException;
+import com.homegenie.userservice.service.TokenRevocationService;
 import com.homegenie.userservice.service.UserService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -13,6 +15,7 @@ import org.springframework.web.bind.annotation.*;
 public class AuthController {
 
     private final UserService userService;
+    private final TokenRevocationService revocationService;
 
     @PostMapping("/register")
     public ResponseEntity<AuthResponse> register(@Valid @RequestBody RegisterRequest request) {
@@ -23,4 +26,31 @@ public class AuthController {
     public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest request) {
         return ResponseEntity.ok(userService.login(request));
     }
-}
\ No newline at end of file
+
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestHeader(value = "Authorization", required = false) String authHeader) {
+        revocationService.revokeToken(bearerToken(authHeader));
+        return ResponseEntity.noContent().build();
+    }
+
+    @PostMapping("/revoke/users/{id}")
+    public ResponseEntity<Void> revokeUserTokens(@PathVariable Long id,
+            @RequestHeader(value = "Authorization", required = false) String authHeader) {
+        revocationService.revokeUser(id, bearerToken(authHeader));
+        return ResponseEntity.noContent().build();
+    }
+
+    @DeleteMapping("/revoke/users/{id}")
+    public ResponseEntity<Void> liftUserRevocation(@PathVariable Long id,
+            @RequestHeader(value = "Authorization", required = false) String authHeader) {
+        revocationService.liftUserRevocation(id, bearerToken(authHeader));
+        return ResponseEntity.noContent().build();
+    }
+
+    private String bearerToken(String authHeader) {
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            throw new AuthenticationException("Missing bearer token");
+        }
+        return authHeader.substring(7);
+    }
+}
@@ -0,0 +1,35 @@
+package com.homegenie.userservice.controller;
+
+import com.homegenie.userservice.dto.RevocationEvent;
+import com.homegenie.userservice.service.TokenRevocationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Revocation feed for the gateway. Not routed by the gateway, so only
+ * reachable from inside the service network.
+ */
+@RestController
+@RequestMapping("/internal/revocations")
+@RequiredArgsConstructor
+public class RevocationController {
+
+    private final TokenRevocationService revocationService;
+
+    @GetMapping
+    public ResponseEntity<List<RevocationEvent>> getRevocations(@RequestParam(defaultValue = "0") long since) {
+        return ResponseEntity.ok(revocationService.getEventsSince(since));
+    }
+
+    @GetMapping("/check")
+    public ResponseEntity<Map<String, Boolean>> check(
+            @RequestParam(required = false) String tokenId,
+            @RequestParam(required = false) String userId,
+            @RequestParam(required = false) Long issuedAt) {
+        return ResponseEntity.ok(Map.of("revoked", revocationService.isRevoked(tokenId, userId, issuedAt)));
+    }
+}
@@ -0,0 +1,34 @@
+package com.homegenie.userservice.controller;
+
+import com.homegenie.userservice.dto.UserChangeBatch;
+import com.homegenie.userservice.service.UserChangeFeed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.time.Duration;
+
+/**
+ * Long-poll feed of user changes for services that cache users. Not routed
+ * by the gateway, so only reachable from inside the service network.
+ * <pre>GET /internal/user-events?after=41&amp;wait=25</pre>
+ * Without {@code after} it answers straight away with the current end of the
+ * feed as {@code next}.
+ */
+@RestController
+@RequestMapping("/internal/user-events")
+@RequiredArgsConstructor
+public class UserChangeController {
+
+    private static final int MAX_WAIT_SECONDS = 30;
+
+    private final UserChangeFeed changeFeed;
+
+    @GetMapping
+    public DeferredResult<UserChangeBatch> getEvents(
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "0") int wait) {
+        int seconds = Math.max(0, Math.min(wait, MAX_WAIT_SECONDS));
+        return changeFeed.poll(after, Duration.ofSeconds(seconds));
+    }
+}
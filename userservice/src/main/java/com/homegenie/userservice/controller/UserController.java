@@ -1,13 +1,22 @@
 package com.homegenie.userservice.controller;
 
+import com.homegenie.userservice.dto.ActiveChangeRequest;
+import com.homegenie.userservice.dto.BatchUserRequest;
+import com.homegenie.userservice.dto.RoleChangeRequest;
 import com.homegenie.userservice.dto.UserResponse;
+import com.homegenie.userservice.dto.UserSummary;
+import com.homegenie.userservice.exception.AuthenticationException;
+import com.homegenie.userservice.security.InternalIdentity;
+import com.homegenie.userservice.security.InternalIdentityVerifier;
 import com.homegenie.userservice.security.JwtUtil;
 import com.homegenie.userservice.service.UserService;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/users")
@@ -16,6 +25,7 @@ public class UserController {
 
     private final UserService userService;
     private final JwtUtil jwtUtil;
+    private final InternalIdentityVerifier identityVerifier;
 
     @org.springframework.beans.factory.annotation.Value("${GOOGLE_CLIENT_ID:NOT_SET}")
     private String googleClientId;
@@ -31,19 +41,27 @@ public class UserController {
         return ResponseEntity.ok(userService.getUserById(id));
     }
 
+    /**
+     * Up to {@value BatchUserRequest#MAX_IDS} users by id in one call, keyed
+     * by id; ids that don't exist are absent from the result.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<Map<Long, UserSummary>> getUsers(@Valid @RequestBody BatchUserRequest request) {
+        return ResponseEntity.ok(userService.getUserSummaries(request.getIds()));
+    }
+
     @GetMapping("/me")
     public ResponseEntity<UserResponse> getMe(
-            @RequestHeader(value = "X-User-Email", required = false) String userEmail,
+            @RequestHeader(value = InternalIdentityVerifier.HEADER, required = false) String identityHeader,
             @RequestHeader(value = "Authorization", required = false) String authHeader) {
-        String email = userEmail;
+        String email = identityVerifier.verify(identityHeader)
+                .map(InternalIdentity::email)
+                .orElse(null);
 
-        // If Gateway didn't set X-User-Email, extract from JWT directly
+        // Called without the gateway's signed identity, parse the JWT directly
         if (email == null && authHeader != null && authHeader.startsWith("Bearer ")) {
-            String token = authHeader.substring(7);
             try {
-                if (jwtUtil.validateToken(token)) {
-                    email = jwtUtil.getEmailFromToken(token);
-                }
+                email = jwtUtil.getEmailFromToken(authHeader.substring(7));
             } catch (Exception e) {
                 return ResponseEntity.status(401).build();
             }
@@ -55,6 +73,20 @@ public class UserController {
         return ResponseEntity.ok(userService.getUserByEmail(email));
     }
 
+    @PutMapping("/{id}/role")
+    public ResponseEntity<UserResponse> changeRole(@PathVariable Long id,
+            @Valid @RequestBody RoleChangeRequest request,
+            @RequestHeader(value = InternalIdentityVerifier.HEADER, required = false) String identityHeader) {
+        return ResponseEntity.ok(userService.changeRole(id, request.getRole(), callerRole(identityHeader)));
+    }
+
+    @PutMapping("/{id}/active")
+    public ResponseEntity<UserResponse> setActive(@PathVariable Long id,
+            @Valid @RequestBody ActiveChangeRequest request,
+            @RequestHeader(value = InternalIdentityVerifier.HEADER, required = false) String identityHeader) {
+        return ResponseEntity.ok(userService.setActive(id, request.getActive(), callerRole(identityHeader)));
+    }
+
     @GetMapping("/technicians")
     public ResponseEntity<List<UserResponse>> getAllTechnicians() {
         return ResponseEntity.ok(userService.getAllTechnicians());
@@ -64,4 +96,14 @@ public class UserController {
     public ResponseEntity<List<UserResponse>> getAllUsers() {
         return ResponseEntity.ok(userService.getAllUsers());
     }
+
+    /**
+     * Role changes are only accepted through the gateway: its signed identity
+     * reflects token revocation, a bare JWT does not.
+     */
+    private String callerRole(String identityHeader) {
+        return identityVerifier.verify(identityHeader)
+                .map(InternalIdentity::role)
+                .orElseThrow(() -> new AuthenticationException("Missing gateway identity"));
+    }
 }
@@ -1,10 +1,12 @@
 package com.homegenie.userservice.controller;
 
 import com.homegenie.userservice.service.VisitService;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.servlet.http.HttpServletRequest;
+import java.time.LocalDate;
 import java.util.Map;
 
 @RestController
@@ -24,8 +26,16 @@ public class VisitController {
         return ResponseEntity.ok(Map.of("uniqueVisitors", count));
     }
 
+    /**
+     * Approximate unique visitors, all time or on {@code date} (kept for
+     * {@code visits.daily-retention-days}).
+     */
     @GetMapping("/unique")
-    public ResponseEntity<?> getUnique() {
+    public ResponseEntity<?> getUnique(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        if (date != null) {
+            return ResponseEntity.ok(Map.of("date", date, "uniqueVisitors", visitService.uniqueCount(date)));
+        }
         return ResponseEntity.ok(Map.of("uniqueVisitors", visitService.uniqueCount()));
     }
 
@@ -0,0 +1,11 @@
+package com.homegenie.userservice.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+@Data
+public class ActiveChangeRequest {
+
+    @NotNull(message = "Active is required")
+    private Boolean active;
+}
@@ -0,0 +1,18 @@
+package com.homegenie.userservice.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BatchUserRequest {
+
+    public static final int MAX_IDS = 200;
+
+    @NotEmpty(message = "At least one id is required")
+    @Size(max = MAX_IDS, message = "At most " + MAX_IDS + " ids per request")
+    private List<@NotNull Long> ids;
+}
@@ -0,0 +1,18 @@
+package com.homegenie.userservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevocationEvent {
+    private String type;
+    private String subject;
+    // Epoch milliseconds
+    private long revokedAt;
+    private long expiresAt;
+    private long updatedAt;
+    private boolean lifted;
+}
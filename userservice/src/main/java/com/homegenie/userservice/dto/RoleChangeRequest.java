@@ -0,0 +1,14 @@
+package com.homegenie.userservice.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import lombok.Data;
+
+@Data
+public class RoleChangeRequest {
+
+    @NotBlank(message = "Role is required")
+    @Pattern(regexp = "RESIDENT|TECHNICIAN|ADMIN", flags = Pattern.Flag.CASE_INSENSITIVE,
+            message = "Role must be RESIDENT, TECHNICIAN or ADMIN")
+    private String role;
+}
@@ -0,0 +1,16 @@
+package com.homegenie.userservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserChange {
+    private long sequence;
+    private Long userId;
+    private String type;
+    // Epoch milliseconds
+    private long occurredAt;
+}
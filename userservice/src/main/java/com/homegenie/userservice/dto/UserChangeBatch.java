@@ -0,0 +1,18 @@
+package com.homegenie.userservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserChangeBatch {
+    private List<UserChange> events;
+    // Pass as "after" on the next poll
+    private long next;
+    // Events after the requested offset were purged; drop everything cached
+    private boolean reset;
+}
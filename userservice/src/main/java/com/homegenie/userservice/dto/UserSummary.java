@@ -0,0 +1,20 @@
+package com.homegenie.userservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The fields other services need to show or notify a user, returned by the
+ * batch lookup instead of the full {@link UserResponse}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserSummary {
+    private Long id;
+    private String email;
+    private String fullName;
+    private String role;
+    private boolean active;
+}
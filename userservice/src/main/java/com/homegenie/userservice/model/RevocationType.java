@@ -0,0 +1,8 @@
+package com.homegenie.userservice.model;
+
+public enum RevocationType {
+    // A single token, identified by its jti claim
+    TOKEN,
+    // Every token issued to a user before the revocation time
+    USER
+}
@@ -0,0 +1,43 @@
+package com.homegenie.userservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.Instant;
+
+@Entity
+@Table(name = "revoked_tokens", indexes = {
+        @Index(name = "idx_revoked_tokens_subject", columnList = "type, subject"),
+        @Index(name = "idx_revoked_tokens_updated_at", columnList = "updatedAt")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevokedToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private RevocationType type;
+
+    // jti for TOKEN, user id for USER
+    @Column(nullable = false)
+    private String subject;
+
+    @Column(nullable = false)
+    private Instant revokedAt;
+
+    // No token covered by this entry is valid after this point
+    @Column(nullable = false)
+    private Instant expiresAt;
+
+    // Set when an admin lifts a USER revocation; kept so the gateway feed sees the change
+    private boolean lifted = false;
+
+    @Column(nullable = false)
+    private Instant updatedAt;
+}
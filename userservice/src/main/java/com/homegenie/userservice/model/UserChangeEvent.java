@@ -0,0 +1,35 @@
+package com.homegenie.userservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.Instant;
+
+/**
+ * One entry of the user change feed. The id doubles as the feed's sequence
+ * number, and the row is written in the same transaction as the change.
+ */
+@Entity
+@Table(name = "user_change_events", indexes = {
+        @Index(name = "idx_user_change_events_occurred_at", columnList = "occurredAt")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserChangeEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private UserChangeType type;
+
+    @Column(nullable = false)
+    private Instant occurredAt;
+}
@@ -0,0 +1,10 @@
+package com.homegenie.userservice.model;
+
+public enum UserChangeType {
+    REGISTERED,
+    // Name or picture, currently only refreshed from Google on login
+    PROFILE_UPDATED,
+    ROLE_CHANGED,
+    DEACTIVATED,
+    REACTIVATED
+}
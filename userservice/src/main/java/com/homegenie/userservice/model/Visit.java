@@ -7,7 +7,9 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "visits")
+@Table(name = "visits", indexes = {
+        @Index(name = "idx_visits_last_seen", columnList = "lastSeen")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -0,0 +1,34 @@
+package com.homegenie.userservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * Checkpoint of a unique-visitor sketch: the all-time one, or one per day.
+ * Instances merge into the stored registers rather than overwrite them.
+ */
+@Entity
+@Table(name = "visit_sketches")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VisitSketch {
+
+    // "all", or the ISO date of a daily sketch
+    @Id
+    private String name;
+
+    // Null for the all-time sketch
+    private LocalDate day;
+
+    @Column(nullable = false)
+    private byte[] registers;
+
+    @Column(nullable = false)
+    private Instant updatedAt;
+}
@@ -0,0 +1,16 @@
+package com.homegenie.userservice.repository;
+
+import com.homegenie.userservice.model.RevocationType;
+import com.homegenie.userservice.model.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, Long> {
+    List<RevokedToken> findByUpdatedAtAfterOrderByUpdatedAtAsc(Instant since);
+    boolean existsByTypeAndSubjectAndLiftedFalse(RevocationType type, String subject);
+    Optional<RevokedToken> findFirstByTypeAndSubjectAndLiftedFalseOrderByRevokedAtDesc(RevocationType type, String subject);
+    List<RevokedToken> findByTypeAndSubjectAndLiftedFalse(RevocationType type, String subject);
+    long deleteByExpiresAtBefore(Instant cutoff);
+}
@@ -0,0 +1,15 @@
+package com.homegenie.userservice.repository;
+
+import com.homegenie.userservice.model.UserChangeEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+public interface UserChangeEventRepository extends JpaRepository<UserChangeEvent, Long> {
+    List<UserChangeEvent> findByIdGreaterThanOrderByIdAsc(Long after, Pageable pageable);
+    Optional<UserChangeEvent> findFirstByOrderByIdAsc();
+    Optional<UserChangeEvent> findFirstByOrderByIdDesc();
+    long deleteByOccurredAtBefore(Instant cutoff);
+}
@@ -1,12 +1,16 @@
 package com.homegenie.userservice.repository;
 
 import com.homegenie.userservice.model.Visit;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
-import java.util.Optional;
+import java.time.LocalDateTime;
+import java.util.List;
 
 @Repository
 public interface VisitRepository extends JpaRepository<Visit, Long> {
-    Optional<Visit> findByIp(String ip);
+    List<Visit> findByIdGreaterThanOrderByIdAsc(Long afterId, Pageable pageable);
+    List<Visit> findByLastSeenGreaterThanEqualAndIdGreaterThanOrderByIdAsc(LocalDateTime since, Long afterId,
+                                                                          Pageable pageable);
 }
@@ -0,0 +1,10 @@
+package com.homegenie.userservice.repository;
+
+import com.homegenie.userservice.model.VisitSketch;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDate;
+
+public interface VisitSketchRepository extends JpaRepository<VisitSketch, String> {
+    long deleteByDayBefore(LocalDate cutoff);
+}
@@ -1,46 +1,67 @@
 package com.homegenie.userservice.security;
 
 import com.homegenie.userservice.model.User;
+import com.homegenie.userservice.model.UserChangeType;
 import com.homegenie.userservice.model.UserRole;
 import com.homegenie.userservice.repository.UserRepository;
-import lombok.RequiredArgsConstructor;
+import com.homegenie.userservice.service.UserChangeFeed;
+import com.homegenie.userservice.service.UserLookupCache;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.oauth2.client.userinfo.DefaultOAuth2UserService;
 import org.springframework.security.oauth2.client.userinfo.OAuth2UserRequest;
 import org.springframework.security.oauth2.core.OAuth2AuthenticationException;
 import org.springframework.security.oauth2.core.user.OAuth2User;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
 
 @Service
-@RequiredArgsConstructor
 public class CustomOAuth2UserService extends DefaultOAuth2UserService {
 
     private final UserRepository userRepository;
+    private final UserChangeFeed changeFeed;
+    private final UserLookupCache userCache;
+    // The user row and its change event are written together
+    private final TransactionTemplate transactionTemplate;
+
+    public CustomOAuth2UserService(UserRepository userRepository, UserChangeFeed changeFeed,
+                                   UserLookupCache userCache, PlatformTransactionManager transactionManager) {
+        this.userRepository = userRepository;
+        this.changeFeed = changeFeed;
+        this.userCache = userCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
 
     @Override
     public OAuth2User loadUser(OAuth2UserRequest userRequest) throws OAuth2AuthenticationException {
         OAuth2User oAuth2User = super.loadUser(userRequest);
-        return processOAuth2User(oAuth2User);
+        transactionTemplate.executeWithoutResult(status -> processOAuth2User(oAuth2User));
+        return oAuth2User;
     }
 
-    private OAuth2User processOAuth2User(OAuth2User oAuth2User) {
+    private void processOAuth2User(OAuth2User oAuth2User) {
         String email = oAuth2User.getAttribute("email");
         String name = oAuth2User.getAttribute("name");
         String picture = oAuth2User.getAttribute("picture");
 
         Optional<User> userOptional = userRepository.findByEmail(email);
-        User user;
         if (userOptional.isPresent()) {
-            user = userOptional.get();
-            // Update existing user details if needed
-            user.setFullName(name);
-            user.setProfilePictureUrl(picture);
+            User user = userOptional.get();
+            // Only write, and tell caching services, when the profile actually changed
+            if (!Objects.equals(user.getFullName(), name) || !Objects.equals(user.getProfilePictureUrl(), picture)) {
+                user.setFullName(name);
+                user.setProfilePictureUrl(picture);
+                userRepository.save(user);
+                changeFeed.record(user.getId(), UserChangeType.PROFILE_UPDATED);
+                userCache.evict(user.getId());
+            }
         } else {
             // Register new user
-            user = new User();
+            User user = new User();
             user.setEmail(email);
             user.setFullName(name);
             user.setProfilePictureUrl(picture);
@@ -51,9 +72,9 @@ public class CustomOAuth2UserService extends DefaultOAuth2UserService {
             // Set a random hashed password to satisfy DB NOT NULL constraint
             // This password can never be used to login (nobody knows the UUID)
             user.setPassword(new BCryptPasswordEncoder().encode(UUID.randomUUID().toString()));
+            userRepository.save(user);
+            changeFeed.record(user.getId(), UserChangeType.REGISTERED);
+            userCache.evict(user.getId());
         }
-        userRepository.save(user);
-
-        return oAuth2User;
     }
 }
@@ -0,0 +1,47 @@
+package com.homegenie.userservice.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Answers {@code /internal/**} with 401 unless the request carries an
+ * {@code X-Internal-Identity} signed for a service. The gateway and the other
+ * services sign one with the shared {@code internal-identity.secret}; a
+ * user's identity header is not enough.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class InternalEndpointFilter extends OncePerRequestFilter {
+
+    private static final String INTERNAL_PATH = "/internal/";
+
+    private final InternalIdentityVerifier verifier;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getServletPath().startsWith(INTERNAL_PATH);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean service = verifier.verify(request.getHeader(InternalIdentityVerifier.HEADER))
+                .filter(InternalIdentity::isService)
+                .isPresent();
+        if (!service) {
+            log.warn("Rejected request to {} without a signed service identity", request.getRequestURI());
+            response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Invalid internal identity");
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,16 @@
+package com.homegenie.userservice.security;
+
+/**
+ * Caller identity the gateway vouched for in the {@code X-Internal-Identity} header.
+ */
+public record InternalIdentity(Long userId, String role, String email) {
+
+    /**
+     * Role signed for calls one service makes to another, with no user behind them.
+     */
+    public static final String SERVICE_ROLE = "SERVICE";
+
+    public boolean isService() {
+        return userId == null && SERVICE_ROLE.equals(role);
+    }
+}
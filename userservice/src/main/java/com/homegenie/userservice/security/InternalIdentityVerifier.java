@@ -0,0 +1,78 @@
+package com.homegenie.userservice.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * Checks the gateway's {@code X-Internal-Identity} header, which is
+ * {@code base64url(userId \n role \n email \n expiry).base64url(HMAC-SHA256)}.
+ * One MAC over a short string replaces a full JWT parse, and a header that
+ * wasn't signed with {@code internal-identity.secret} or has expired is ignored.
+ */
+@Component
+public class InternalIdentityVerifier {
+
+    public static final String HEADER = "X-Internal-Identity";
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final SecretKeySpec key;
+    private final ThreadLocal<Mac> macs;
+
+    public InternalIdentityVerifier(@Value("${internal-identity.secret}") String secret) {
+        this.key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+        this.macs = ThreadLocal.withInitial(this::newMac);
+    }
+
+    public Optional<InternalIdentity> verify(String header) {
+        if (header == null) {
+            return Optional.empty();
+        }
+        int dot = header.indexOf('.');
+        if (dot <= 0) {
+            return Optional.empty();
+        }
+        try {
+            String payload = header.substring(0, dot);
+            byte[] signature = Base64.getUrlDecoder().decode(header.substring(dot + 1));
+            byte[] expected = macs.get().doFinal(payload.getBytes(StandardCharsets.US_ASCII));
+            if (!MessageDigest.isEqual(expected, signature)) {
+                return Optional.empty();
+            }
+
+            String[] claims = new String(Base64.getUrlDecoder().decode(payload), StandardCharsets.UTF_8)
+                    .split("\n", -1);
+            if (claims.length != 4
+                    || !Instant.now().isBefore(Instant.ofEpochSecond(Long.parseLong(claims[3])))) {
+                return Optional.empty();
+            }
+            Long userId = claims[0].isEmpty() ? null : Long.valueOf(claims[0]);
+            return Optional.of(new InternalIdentity(userId, emptyToNull(claims[1]), emptyToNull(claims[2])));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 not available", e);
+        }
+    }
+
+    private static String emptyToNull(String value) {
+        return value.isEmpty() ? null : value;
+    }
+}
@@ -37,6 +37,8 @@ public class SecurityConfig {
                                                 .requestMatchers("/api/users/**").permitAll()
                                                 .requestMatchers("/api/visits/**").permitAll()
                                                 .requestMatchers("/actuator/**").permitAll()
+                                                // Service-to-service only; InternalEndpointFilter checks the signature
+                                                .requestMatchers("/internal/**").permitAll()
                                                 .requestMatchers("/v3/api-docs/**", "/swagger-ui/**",
                                                                 "/swagger-ui.html")
                                                 .permitAll()
@@ -0,0 +1,116 @@
+package com.homegenie.userservice.service;
+
+import java.util.Arrays;
+
+/**
+ * HyperLogLog distinct counter with 2^14 one-byte registers (16 KB, about
+ * 0.8% standard error). The harmonic sum behind the estimate is kept up to
+ * date on every register change, so {@link #estimate} doesn't walk the
+ * registers. Two sketches merge by taking the larger of each register, which
+ * is how checkpoints from several instances are combined.
+ */
+final class HyperLogLog {
+
+    static final int PRECISION = 14;
+    static final int REGISTERS = 1 << PRECISION;
+
+    private static final double ALPHA = 0.7213 / (1 + 1.079 / REGISTERS);
+
+    private final byte[] registers;
+    private double inverseSum;
+    private int zeros;
+
+    HyperLogLog() {
+        this(new byte[REGISTERS]);
+    }
+
+    private HyperLogLog(byte[] registers) {
+        this.registers = registers;
+        for (byte register : registers) {
+            inverseSum += Math.scalb(1.0, -register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+    }
+
+    static HyperLogLog fromBytes(byte[] registers) {
+        if (registers == null || registers.length != REGISTERS) {
+            throw new IllegalArgumentException("Expected " + REGISTERS + " registers");
+        }
+        return new HyperLogLog(registers.clone());
+    }
+
+    /**
+     * @return whether the sketch changed
+     */
+    synchronized boolean add(String value) {
+        long hash = hash(value);
+        int index = (int) (hash >>> (64 - PRECISION));
+        // Leading zeros of the remaining bits, plus one; the sentinel bit caps it
+        int rank = Long.numberOfLeadingZeros((hash << PRECISION) | (1L << (PRECISION - 1))) + 1;
+        return raise(index, rank);
+    }
+
+    /**
+     * Folds {@code other} into this sketch.
+     *
+     * @return whether this sketch changed
+     */
+    synchronized boolean merge(byte[] other) {
+        boolean changed = false;
+        for (int i = 0; i < REGISTERS; i++) {
+            changed |= raise(i, other[i]);
+        }
+        return changed;
+    }
+
+    synchronized long estimate() {
+        double raw = ALPHA * REGISTERS * REGISTERS / inverseSum;
+        if (raw <= 2.5 * REGISTERS && zeros > 0) {
+            // Linear counting is more accurate while many registers are empty
+            return Math.round(REGISTERS * Math.log((double) REGISTERS / zeros));
+        }
+        return Math.round(raw);
+    }
+
+    synchronized byte[] toBytes() {
+        return registers.clone();
+    }
+
+    synchronized boolean sameAs(byte[] other) {
+        return Arrays.equals(registers, other);
+    }
+
+    private boolean raise(int index, int rank) {
+        int current = registers[index];
+        if (rank <= current) {
+            return false;
+        }
+        registers[index] = (byte) rank;
+        inverseSum += Math.scalb(1.0, -rank) - Math.scalb(1.0, -current);
+        if (current == 0) {
+            zeros--;
+        }
+        return true;
+    }
+
+    /**
+     * 64-bit FNV-1a over the chars, finished with MurmurHash3's fmix64 so the
+     * top bits used for the register index are well mixed. Works on the chars
+     * directly so a hit doesn't allocate.
+     */
+    static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,143 @@
+package com.homegenie.userservice.service;
+
+import com.homegenie.userservice.dto.RevocationEvent;
+import com.homegenie.userservice.exception.AuthenticationException;
+import com.homegenie.userservice.exception.ForbiddenException;
+import com.homegenie.userservice.exception.ResourceNotFoundException;
+import com.homegenie.userservice.model.RevocationType;
+import com.homegenie.userservice.model.RevokedToken;
+import com.homegenie.userservice.model.UserRole;
+import com.homegenie.userservice.repository.RevokedTokenRepository;
+import com.homegenie.userservice.repository.UserRepository;
+import com.homegenie.userservice.security.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Authoritative store of revoked tokens. The gateway polls {@link #getEventsSince}
+ * into an in-memory Bloom filter and only calls {@link #isRevoked} when the
+ * filter reports a possible hit.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TokenRevocationService {
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final UserRepository userRepository;
+    private final JwtUtil jwtUtil;
+
+    @Value("${jwt.expiration}")
+    private Long expiration;
+
+    @Transactional
+    public void revokeToken(String token) {
+        Claims claims = parse(token);
+        if (claims.getId() == null) {
+            // Issued before tokens carried a jti; it can only be revoked per user
+            log.warn("Token for {} has no jti and cannot be revoked individually", claims.getSubject());
+            return;
+        }
+        Instant now = Instant.now();
+        Instant expiresAt = claims.getExpiration() != null
+                ? claims.getExpiration().toInstant()
+                : now.plusMillis(expiration);
+        revokedTokenRepository.save(new RevokedToken(null, RevocationType.TOKEN, claims.getId(),
+                now, expiresAt, false, now));
+        log.info("Revoked token {} of {}", claims.getId(), claims.getSubject());
+    }
+
+    @Transactional
+    public void revokeUser(Long userId, String adminToken) {
+        requireAdmin(adminToken);
+        if (!userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("User not found with id: " + userId);
+        }
+        Instant now = Instant.now();
+        revokedTokenRepository.save(new RevokedToken(null, RevocationType.USER, String.valueOf(userId),
+                now, now.plusMillis(expiration), false, now));
+        log.info("Revoked all tokens of user {}", userId);
+    }
+
+    @Transactional
+    public void liftUserRevocation(Long userId, String adminToken) {
+        requireAdmin(adminToken);
+        Instant now = Instant.now();
+        List<RevokedToken> active = revokedTokenRepository
+                .findByTypeAndSubjectAndLiftedFalse(RevocationType.USER, String.valueOf(userId));
+        for (RevokedToken revocation : active) {
+            revocation.setLifted(true);
+            revocation.setUpdatedAt(now);
+        }
+        revokedTokenRepository.saveAll(active);
+    }
+
+    @Transactional(readOnly = true)
+    public List<RevocationEvent> getEventsSince(long sinceMillis) {
+        Instant now = Instant.now();
+        return revokedTokenRepository.findByUpdatedAtAfterOrderByUpdatedAtAsc(Instant.ofEpochMilli(sinceMillis))
+                .stream()
+                .filter(revocation -> revocation.getExpiresAt().isAfter(now))
+                .map(revocation -> new RevocationEvent(
+                        revocation.getType().name(),
+                        revocation.getSubject(),
+                        revocation.getRevokedAt().toEpochMilli(),
+                        revocation.getExpiresAt().toEpochMilli(),
+                        revocation.getUpdatedAt().toEpochMilli(),
+                        revocation.isLifted()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * A token is revoked if its jti was revoked, or its user's tokens were
+     * revoked at or after the time it was issued.
+     */
+    @Transactional(readOnly = true)
+    public boolean isRevoked(String tokenId, String userId, Long issuedAtMillis) {
+        if (tokenId != null && revokedTokenRepository
+                .existsByTypeAndSubjectAndLiftedFalse(RevocationType.TOKEN, tokenId)) {
+            return true;
+        }
+        if (userId == null) {
+            return false;
+        }
+        return revokedTokenRepository
+                .findFirstByTypeAndSubjectAndLiftedFalseOrderByRevokedAtDesc(RevocationType.USER, userId)
+                .map(revocation -> issuedAtMillis == null
+                        || issuedAtMillis <= revocation.getRevokedAt().toEpochMilli())
+                .orElse(false);
+    }
+
+    @Scheduled(cron = "${revocation.cleanup-cron:0 30 3 * * *}")
+    @Transactional
+    public void purgeExpired() {
+        long removed = revokedTokenRepository.deleteByExpiresAtBefore(Instant.now());
+        if (removed > 0) {
+            log.info("Purged {} expired token revocations", removed);
+        }
+    }
+
+    private void requireAdmin(String token) {
+        Claims claims = parse(token);
+        if (!UserRole.ADMIN.name().equals(claims.get("role", String.class))) {
+            throw new ForbiddenException("Only admins can revoke other users' tokens");
+        }
+    }
+
+    private Claims parse(String token) {
+        try {
+            return jwtUtil.getClaims(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new AuthenticationException("Invalid token");
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.homegenie.userservice.service;
+
+import com.homegenie.userservice.dto.UserChange;
+import com.homegenie.userservice.dto.UserChangeBatch;
+import com.homegenie.userservice.model.UserChangeEvent;
+import com.homegenie.userservice.model.UserChangeType;
+import com.homegenie.userservice.repository.UserChangeEventRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Ordered feed of user changes for services that cache user data. Events are
+ * stored with the change itself and numbered by their id; consumers poll with
+ * the last sequence they saw and get everything after it, waiting up to a
+ * given time when there is nothing new.
+ * <p>
+ * Ids are allocated before commit, so a later id can become visible before
+ * an earlier one. A batch therefore stops at a gap in the sequence until the
+ * event after the gap is {@code settle-time} old; by then the missing id
+ * either committed or was rolled back.
+ */
+@Service
+@Slf4j
+public class UserChangeFeed {
+
+    private final UserChangeEventRepository repository;
+    private final Duration settleTime;
+    private final int batchSize;
+    private final Duration retention;
+    private final Clock clock;
+    private final Map<DeferredResult<UserChangeBatch>, Long> waiters = new ConcurrentHashMap<>();
+    private final ThreadPoolTaskExecutor wakeups;
+
+    public UserChangeFeed(UserChangeEventRepository repository,
+                          @Value("${user.events.settle-time:2s}") Duration settleTime,
+                          @Value("${user.events.batch-size:500}") int batchSize,
+                          @Value("${user.events.retention:7d}") Duration retention) {
+        this(repository, settleTime, batchSize, retention, Clock.systemUTC());
+    }
+
+    UserChangeFeed(UserChangeEventRepository repository, Duration settleTime, int batchSize, Duration retention,
+                   Clock clock) {
+        this.repository = repository;
+        this.settleTime = settleTime;
+        this.batchSize = batchSize;
+        this.retention = retention;
+        this.clock = clock;
+        this.wakeups = new ThreadPoolTaskExecutor();
+        wakeups.setThreadNamePrefix("user-feed-");
+        wakeups.setCorePoolSize(1);
+        wakeups.setMaxPoolSize(1);
+        wakeups.setQueueCapacity(1);
+        // One pending wake-up already covers any further commits
+        wakeups.setRejectedExecutionHandler(new ThreadPoolExecutor.DiscardPolicy());
+        wakeups.initialize();
+    }
+
+    /**
+     * Appends an event in the caller's transaction, and wakes waiting
+     * consumers once it commits.
+     */
+    @Transactional
+    public void record(Long userId, UserChangeType type) {
+        repository.save(new UserChangeEvent(null, userId, type, clock.instant()));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    wakeups.execute(UserChangeFeed.this::wakeWaiters);
+                }
+            });
+        } else {
+            wakeups.execute(this::wakeWaiters);
+        }
+    }
+
+    /**
+     * Events after {@code after}. Without {@code after} nothing is returned,
+     * only the current end of the feed to start following from.
+     */
+    @Transactional(readOnly = true)
+    public UserChangeBatch read(Long after) {
+        if (after == null) {
+            return new UserChangeBatch(List.of(), head(), false);
+        }
+        boolean reset = repository.findFirstByOrderByIdAsc()
+                .map(oldest -> oldest.getId() > after + 1)
+                .orElse(false);
+
+        Instant settledBefore = clock.instant().minus(settleTime);
+        List<UserChange> events = new ArrayList<>();
+        long next = after;
+        for (UserChangeEvent event : repository.findByIdGreaterThanOrderByIdAsc(after, PageRequest.of(0, batchSize))) {
+            if (event.getId() != next + 1 && !reset && event.getOccurredAt().isAfter(settledBefore)) {
+                break;
+            }
+            events.add(new UserChange(event.getId(), event.getUserId(), event.getType().name(),
+                    event.getOccurredAt().toEpochMilli()));
+            next = event.getId();
+        }
+        return new UserChangeBatch(events, next, reset);
+    }
+
+    /**
+     * Like {@link #read} but, when there is nothing new, holds the request
+     * open for up to {@code wait} and answers as soon as an event commits.
+     */
+    public DeferredResult<UserChangeBatch> poll(Long after, Duration wait) {
+        UserChangeBatch batch = read(after);
+        DeferredResult<UserChangeBatch> result = new DeferredResult<>(wait.toMillis(), batch);
+        if (!batch.getEvents().isEmpty() || batch.isReset() || after == null || wait.isZero()) {
+            result.setResult(batch);
+            return result;
+        }
+        result.onCompletion(() -> waiters.remove(result));
+        waiters.put(result, batch.getNext());
+        // An event may have committed between the read and registering
+        wakeups.execute(this::wakeWaiters);
+        return result;
+    }
+
+    @Scheduled(cron = "${user.events.cleanup-cron:0 45 3 * * *}")
+    @Transactional
+    public void purgeExpired() {
+        long removed = repository.deleteByOccurredAtBefore(clock.instant().minus(retention));
+        if (removed > 0) {
+            log.info("Purged {} user change events", removed);
+        }
+    }
+
+    private void wakeWaiters() {
+        waiters.forEach((waiter, after) -> {
+            try {
+                UserChangeBatch batch = read(after);
+                if (!batch.getEvents().isEmpty() || batch.isReset()) {
+                    waiter.setResult(batch);
+                }
+            } catch (RuntimeException e) {
+                log.warn("Could not read user changes after {}: {}", after, e.getMessage());
+            }
+        });
+    }
+
+    private long head() {
+        return repository.findFirstByOrderByIdDesc().map(UserChangeEvent::getId).orElse(0L);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        wakeups.shutdown();
+    }
+}
@@ -0,0 +1,231 @@
+package com.homegenie.userservice.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.homegenie.userservice.dto.UserResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Read-through cache of user lookups by id and by email, in this instance's
+ * memory and, when a shared {@link CacheManager} is configured (Redis in
+ * prod), in a second level shared by all instances. Emails never change, so
+ * the email side only maps to the id and evicting an id covers both.
+ * <p>
+ * Writers call {@link #evict} and, inside a transaction, it runs again after
+ * commit so a reader can't put back the row being replaced. With the shared
+ * level, other instances' memory can lag by up to {@code user.cache.ttl}.
+ * <p>
+ * Another instance can read the old row just before a writer commits and put
+ * it in the shared level after the writer's evict. So an evict first stamps
+ * the id in {@value #USER_EVICTIONS}, and a load compares that stamp from
+ * before its read with the one after its put. If they differ, the load takes
+ * its own entry back out.
+ */
+@Component
+@Slf4j
+public class UserLookupCache {
+
+    static final String USERS = "users";
+    static final String USER_IDS_BY_EMAIL = "user-ids-by-email";
+    static final String USER_EVICTIONS = "user-evictions";
+
+    private final Cache<Long, UserResponse> users;
+    private final Cache<String, Long> idsByEmail;
+    private final org.springframework.cache.Cache sharedUsers;
+    private final org.springframework.cache.Cache sharedIdsByEmail;
+    private final org.springframework.cache.Cache sharedEvictions;
+    private final Counter sharedHits;
+    private final Counter sharedMisses;
+    private final Counter sharedErrors;
+
+    @Autowired
+    public UserLookupCache(MeterRegistry meterRegistry, ObjectProvider<CacheManager> sharedCacheManager,
+                           @Value("${user.cache.maximum-size:5000}") long maximumSize,
+                           @Value("${user.cache.ttl:10m}") Duration ttl) {
+        this(maximumSize, ttl, sharedCacheManager.getIfAvailable(), meterRegistry);
+        CaffeineCacheMetrics.monitor(meterRegistry, users, USERS);
+        CaffeineCacheMetrics.monitor(meterRegistry, idsByEmail, USER_IDS_BY_EMAIL);
+    }
+
+    UserLookupCache(long maximumSize, Duration ttl, CacheManager sharedCacheManager, MeterRegistry meterRegistry) {
+        this.users = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.idsByEmail = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.sharedUsers = sharedCacheManager != null ? sharedCacheManager.getCache(USERS) : null;
+        this.sharedIdsByEmail = sharedCacheManager != null ? sharedCacheManager.getCache(USER_IDS_BY_EMAIL) : null;
+        this.sharedEvictions = sharedCacheManager != null ? sharedCacheManager.getCache(USER_EVICTIONS) : null;
+        this.sharedHits = sharedCounter(meterRegistry, "hit");
+        this.sharedMisses = sharedCounter(meterRegistry, "miss");
+        this.sharedErrors = sharedCounter(meterRegistry, "error");
+    }
+
+    /**
+     * The cached user, or what {@code loader} returns; {@code null} from the
+     * loader isn't cached.
+     */
+    public UserResponse get(Long id, Function<Long, UserResponse> loader) {
+        return users.get(id, key -> {
+            UserResponse shared = sharedGet(sharedUsers, key);
+            if (shared != null) {
+                return shared;
+            }
+            Object stamp = evictionStamp(key);
+            UserResponse user = loader.apply(key);
+            if (user != null) {
+                sharedPutUser(user, stamp);
+            }
+            return user;
+        });
+    }
+
+    public UserResponse getByEmail(String email, Function<String, UserResponse> loader) {
+        Long id = idsByEmail.getIfPresent(email);
+        if (id == null) {
+            Object shared = sharedGet(sharedIdsByEmail, email);
+            // JSON brings small ids back as Integer
+            id = shared instanceof Number number ? number.longValue() : null;
+        }
+        if (id != null) {
+            UserResponse user = get(id, ignored -> loader.apply(email));
+            idsByEmail.put(email, id);
+            return user;
+        }
+
+        UserResponse user = loader.apply(email);
+        if (user != null) {
+            users.put(user.getId(), user);
+            idsByEmail.put(email, user.getId());
+            // The id wasn't known before the load, so there is no stamp to check
+            // the row against; only the index is shared and the next lookup by
+            // id shares the row
+            sharedPut(sharedIdsByEmail, email, user.getId());
+        }
+        return user;
+    }
+
+    public void evict(Long id) {
+        invalidate(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidate(id);
+                }
+            });
+        }
+    }
+
+    private void invalidate(Long id) {
+        users.invalidate(id);
+        if (sharedUsers != null) {
+            try {
+                // Stamp before evicting, so a load that put the old row after
+                // this evict sees the new stamp and removes it
+                if (sharedEvictions != null) {
+                    sharedEvictions.put(id, UUID.randomUUID().toString());
+                }
+                sharedUsers.evict(id);
+            } catch (RuntimeException e) {
+                sharedErrors.increment();
+                log.warn("Could not evict user {} from the shared cache: {}", id, e.getMessage());
+            }
+        }
+        log.debug("Evicted cached user {}", id);
+    }
+
+    /**
+     * Puts a user loaded from the database, unless an evict for it happened
+     * since {@code stamp} was read before the load.
+     */
+    private void sharedPutUser(UserResponse user, Object stamp) {
+        sharedPut(sharedUsers, user.getId(), user);
+        if (sharedEvictions == null) {
+            return;
+        }
+        try {
+            if (!Objects.equals(stamp, evictionStamp(user.getId()))) {
+                sharedUsers.evict(user.getId());
+                log.debug("User {} changed while loading, not sharing it", user.getId());
+            }
+        } catch (RuntimeException e) {
+            sharedErrors.increment();
+            log.warn("Could not check user {} against the shared cache: {}", user.getId(), e.getMessage());
+        }
+    }
+
+    private Object evictionStamp(Long id) {
+        if (sharedEvictions == null) {
+            return null;
+        }
+        try {
+            org.springframework.cache.Cache.ValueWrapper stamp = sharedEvictions.get(id);
+            return stamp != null ? stamp.get() : null;
+        } catch (RuntimeException e) {
+            sharedErrors.increment();
+            log.warn("Could not read {} from the shared cache: {}", USER_EVICTIONS, e.getMessage());
+            return null;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T sharedGet(org.springframework.cache.Cache cache, Object key) {
+        if (cache == null) {
+            return null;
+        }
+        try {
+            org.springframework.cache.Cache.ValueWrapper value = cache.get(key);
+            if (value == null) {
+                sharedMisses.increment();
+                return null;
+            }
+            sharedHits.increment();
+            return (T) value.get();
+        } catch (RuntimeException e) {
+            // The shared level is an optimisation, fall back to the database
+            sharedErrors.increment();
+            log.warn("Could not read {} from the shared cache: {}", cache.getName(), e.getMessage());
+            return null;
+        }
+    }
+
+    private void sharedPut(org.springframework.cache.Cache cache, Object key, Object value) {
+        if (cache == null) {
+            return;
+        }
+        try {
+            cache.put(key, value);
+        } catch (RuntimeException e) {
+            sharedErrors.increment();
+            log.warn("Could not write {} to the shared cache: {}", cache.getName(), e.getMessage());
+        }
+    }
+
+    private static Counter sharedCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("user.cache.shared")
+                .description("Lookups and writes against the shared user cache")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
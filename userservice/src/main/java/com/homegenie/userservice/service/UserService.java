@@ -3,8 +3,10 @@ package com.homegenie.userservice.service;
 import com.homegenie.userservice.dto.*;
 import com.homegenie.userservice.exception.AuthenticationException;
 import com.homegenie.userservice.exception.DuplicateResourceException;
+import com.homegenie.userservice.exception.ForbiddenException;
 import com.homegenie.userservice.exception.ResourceNotFoundException;
 import com.homegenie.userservice.model.User;
+import com.homegenie.userservice.model.UserChangeType;
 import com.homegenie.userservice.model.UserRole;
 import com.homegenie.userservice.repository.UserRepository;
 import com.homegenie.userservice.security.JwtUtil;
@@ -12,7 +14,11 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -22,6 +28,8 @@ public class UserService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtUtil jwtUtil;
+    private final UserChangeFeed changeFeed;
+    private final UserLookupCache userCache;
 
     @Transactional
     public AuthResponse register(RegisterRequest request) {
@@ -51,6 +59,8 @@ public class UserService {
         }
 
         User savedUser = userRepository.save(user);
+        changeFeed.record(savedUser.getId(), UserChangeType.REGISTERED);
+        userCache.evict(savedUser.getId());
 
         String token = jwtUtil.generateToken(
                 savedUser.getEmail(),
@@ -97,9 +107,57 @@ public class UserService {
     }
 
     public UserResponse getUserById(Long id) {
+        UserResponse user = userCache.get(id, key -> userRepository.findById(key)
+                .map(this::mapToUserResponse)
+                .orElse(null));
+        if (user == null) {
+            throw new ResourceNotFoundException("User not found with id: " + id);
+        }
+        return user;
+    }
+
+    /**
+     * Resolves all ids with one query. Unknown ids are left out of the map
+     * rather than failing the batch.
+     */
+    public Map<Long, UserSummary> getUserSummaries(Collection<Long> ids) {
+        Map<Long, UserSummary> summaries = new LinkedHashMap<>();
+        for (User user : userRepository.findAllById(new LinkedHashSet<>(ids))) {
+            summaries.put(user.getId(), new UserSummary(user.getId(), user.getEmail(), user.getFullName(),
+                    user.getRole().name(), user.isActive()));
+        }
+        return summaries;
+    }
+
+    @Transactional
+    public UserResponse changeRole(Long id, String role, String callerRole) {
+        requireAdmin(callerRole);
+        UserRole newRole = UserRole.valueOf(role.toUpperCase());
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
+        if (user.getRole() != newRole) {
+            user.setRole(newRole);
+            if (newRole != UserRole.TECHNICIAN) {
+                user.setSpecialty(null);
+            }
+            userRepository.save(user);
+            changeFeed.record(id, UserChangeType.ROLE_CHANGED);
+            userCache.evict(id);
+        }
+        return mapToUserResponse(user);
+    }
 
+    @Transactional
+    public UserResponse setActive(Long id, boolean active, String callerRole) {
+        requireAdmin(callerRole);
+        User user = userRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
+        if (user.isActive() != active) {
+            user.setActive(active);
+            userRepository.save(user);
+            changeFeed.record(id, active ? UserChangeType.REACTIVATED : UserChangeType.DEACTIVATED);
+            userCache.evict(id);
+        }
         return mapToUserResponse(user);
     }
 
@@ -118,9 +176,19 @@ public class UserService {
     }
 
     public UserResponse getUserByEmail(String email) {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found with email: " + email));
-        return mapToUserResponse(user);
+        UserResponse user = userCache.getByEmail(email, key -> userRepository.findByEmail(key)
+                .map(this::mapToUserResponse)
+                .orElse(null));
+        if (user == null) {
+            throw new ResourceNotFoundException("User not found with email: " + email);
+        }
+        return user;
+    }
+
+    private void requireAdmin(String callerRole) {
+        if (!UserRole.ADMIN.name().equals(callerRole)) {
+            throw new ForbiddenException("Only admins can change other users");
+        }
     }
 
     private UserResponse mapToUserResponse(User user) {
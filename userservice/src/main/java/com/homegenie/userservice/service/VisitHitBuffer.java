@@ -0,0 +1,159 @@
+package com.homegenie.userservice.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Write-behind buffer for visit hits. Hits are added to a per-IP
+ * {@link LongAdder} in memory, and every {@code visits.flush-interval}, or
+ * once {@code visits.flush-threshold} IPs are pending, all of them are
+ * written with one batched upsert. Recording a hit never touches the
+ * database; hits still buffered when the process dies are lost.
+ * <p>
+ * A flush swaps in a fresh buffer and drains the old one. A hit that looked
+ * up the old buffer just before the swap can land after it was drained, so
+ * the old buffer is drained once more on the following flush before it is
+ * dropped.
+ */
+@Component
+@Slf4j
+public class VisitHitBuffer {
+
+    // Adds the buffered hits to the row, keeping the later lastSeen
+    static final String UPSERT = "INSERT INTO visits (ip, last_seen, hit_count) VALUES (?, ?, ?) "
+            + "ON CONFLICT (ip) DO UPDATE SET hit_count = visits.hit_count + EXCLUDED.hit_count, "
+            + "last_seen = GREATEST(visits.last_seen, EXCLUDED.last_seen)";
+
+    private static final int COUNT = 0;
+    private static final int LAST_SEEN = 1;
+
+    private final JdbcTemplate jdbcTemplate;
+    // All or nothing, so a failed flush can put every row back
+    private final TransactionOperations transactionOperations;
+    private final int flushThreshold;
+    private final Clock clock;
+    private final Executor flusher;
+
+    private volatile Map<String, PendingHits> pending = new ConcurrentHashMap<>();
+    private Map<String, PendingHits> retiring = Map.of();
+
+    @Autowired
+    public VisitHitBuffer(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                          @Value("${visits.flush-threshold:1000}") int flushThreshold) {
+        this(jdbcTemplate, new TransactionTemplate(transactionManager), flushThreshold, Clock.systemDefaultZone(),
+                newFlusher());
+    }
+
+    VisitHitBuffer(JdbcTemplate jdbcTemplate, TransactionOperations transactionOperations, int flushThreshold,
+                   Clock clock, Executor flusher) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionOperations = transactionOperations;
+        this.flushThreshold = flushThreshold;
+        this.clock = clock;
+        this.flusher = flusher;
+    }
+
+    public void record(String ip) {
+        Map<String, PendingHits> buffer = pending;
+        PendingHits hits = buffer.get(ip);
+        boolean added = hits == null;
+        if (added) {
+            hits = buffer.computeIfAbsent(ip, ignored -> new PendingHits());
+        }
+        hits.lastSeen = clock.millis();
+        hits.count.increment();
+        if (added && buffer.size() >= flushThreshold) {
+            flusher.execute(this::flush);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${visits.flush-interval:5000}")
+    public synchronized void flush() {
+        Map<String, PendingHits> drained = pending;
+        pending = new ConcurrentHashMap<>();
+
+        // Sorted by IP so concurrent flushes from several instances lock rows in the same order
+        Map<String, long[]> rows = new TreeMap<>();
+        drain(retiring, rows);
+        drain(drained, rows);
+        retiring = drained;
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> batch = new ArrayList<>(rows.size());
+        rows.forEach((ip, row) -> batch.add(new Object[] {ip,
+                LocalDateTime.ofInstant(Instant.ofEpochMilli(row[LAST_SEEN]), clock.getZone()), row[COUNT]}));
+        try {
+            transactionOperations.executeWithoutResult(status -> jdbcTemplate.batchUpdate(UPSERT, batch));
+            log.debug("Flushed hits for {} visitors", batch.size());
+        } catch (RuntimeException e) {
+            log.warn("Could not flush hits for {} visitors, retrying with the next flush: {}", batch.size(),
+                    e.getMessage());
+            rows.forEach((ip, row) -> {
+                PendingHits hits = pending.computeIfAbsent(ip, ignored -> new PendingHits());
+                hits.lastSeen = Math.max(hits.lastSeen, row[LAST_SEEN]);
+                hits.count.add(row[COUNT]);
+            });
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flush();
+        // Anything that raced the swap above
+        flush();
+        if (flusher instanceof ThreadPoolTaskExecutor pool) {
+            pool.shutdown();
+        }
+    }
+
+    private static void drain(Map<String, PendingHits> buffer, Map<String, long[]> rows) {
+        buffer.forEach((ip, hits) -> {
+            long count = hits.count.sumThenReset();
+            if (count > 0) {
+                long[] row = rows.computeIfAbsent(ip, ignored -> new long[2]);
+                row[COUNT] += count;
+                row[LAST_SEEN] = Math.max(row[LAST_SEEN], hits.lastSeen);
+            }
+        });
+    }
+
+    private static ThreadPoolTaskExecutor newFlusher() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("visit-flush-");
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(1);
+        // One pending flush already covers everything buffered
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.DiscardPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    private static final class PendingHits {
+        final LongAdder count = new LongAdder();
+        volatile long lastSeen;
+    }
+}
@@ -1,36 +1,190 @@
 package com.homegenie.userservice.service;
 
 import com.homegenie.userservice.model.Visit;
+import com.homegenie.userservice.model.VisitSketch;
 import com.homegenie.userservice.repository.VisitRepository;
+import com.homegenie.userservice.repository.VisitSketchRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Records landing-page visits and answers unique-visitor counts from
+ * in-memory {@link HyperLogLog} sketches, one all-time and one per day, so
+ * neither path touches the {@code visits} table. Sketches are checkpointed to
+ * {@code visit_sketches} and restored on startup; visits seen since the last
+ * checkpoint are replayed from the table by {@code lastSeen}.
+ */
 @Service
+@Slf4j
 public class VisitService {
 
+    static final String ALL_TIME = "all";
+
+    private static final int REPLAY_PAGE_SIZE = 1000;
+
     private final VisitRepository visitRepository;
+    private final VisitSketchRepository sketchRepository;
+    private final VisitHitBuffer hitBuffer;
+    private final int dailyRetentionDays;
+    private final Duration checkpointInterval;
+    private final Clock clock;
+    private final Map<String, HyperLogLog> sketches = new ConcurrentHashMap<>();
+    private final Set<String> dirty = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public VisitService(VisitRepository visitRepository, VisitSketchRepository sketchRepository,
+                        VisitHitBuffer hitBuffer,
+                        @Value("${visits.daily-retention-days:30}") int dailyRetentionDays,
+                        @Value("${visits.checkpoint-interval:60000}") long checkpointIntervalMillis) {
+        this(visitRepository, sketchRepository, hitBuffer, dailyRetentionDays, Duration.ofMillis(checkpointIntervalMillis),
+                Clock.systemDefaultZone());
+    }
 
-    public VisitService(VisitRepository visitRepository) {
+    VisitService(VisitRepository visitRepository, VisitSketchRepository sketchRepository, VisitHitBuffer hitBuffer,
+                 int dailyRetentionDays, Duration checkpointInterval, Clock clock) {
         this.visitRepository = visitRepository;
+        this.sketchRepository = sketchRepository;
+        this.hitBuffer = hitBuffer;
+        this.dailyRetentionDays = dailyRetentionDays;
+        this.checkpointInterval = checkpointInterval;
+        this.clock = clock;
+        sketches.put(ALL_TIME, new HyperLogLog());
     }
 
-    @Transactional
+    /**
+     * Counts the visit in memory only; {@link VisitHitBuffer} writes the
+     * {@code visits} row later.
+     */
     public int recordVisit(String ip) {
-        Visit visit = visitRepository.findByIp(ip)
-                .map(v -> {
-                    v.setLastSeen(LocalDateTime.now());
-                    v.setHitCount(v.getHitCount() + 1);
-                    return v;
-                })
-                .orElse(new Visit(ip));
-
-        visitRepository.save(visit);
-        return (int) visitRepository.count();
+        hitBuffer.record(ip);
+        count(ip, LocalDate.now(clock));
+        return uniqueCount();
     }
 
     public int uniqueCount() {
-        return (int) visitRepository.count();
+        return (int) sketches.get(ALL_TIME).estimate();
+    }
+
+    /**
+     * Unique visitors on {@code day}; 0 for days outside the retention.
+     */
+    public int uniqueCount(LocalDate day) {
+        HyperLogLog sketch = sketches.get(day.toString());
+        return sketch == null ? 0 : (int) sketch.estimate();
+    }
+
+    @Scheduled(fixedDelayString = "${visits.checkpoint-interval:60000}")
+    @Transactional
+    public void checkpoint() {
+        persist();
+
+        LocalDate cutoff = LocalDate.now(clock).minusDays(dailyRetentionDays);
+        sketches.keySet().removeIf(name -> !ALL_TIME.equals(name) && LocalDate.parse(name).isBefore(cutoff));
+        long removed = sketchRepository.deleteByDayBefore(cutoff);
+        if (removed > 0) {
+            log.info("Removed {} expired daily visit sketches", removed);
+        }
+    }
+
+    @PostConstruct
+    void restore() {
+        LocalDate cutoff = LocalDate.now(clock).minusDays(dailyRetentionDays);
+        Instant checkpointed = null;
+        for (VisitSketch stored : sketchRepository.findAll()) {
+            if (stored.getDay() != null && stored.getDay().isBefore(cutoff)) {
+                continue;
+            }
+            sketches.put(stored.getName(), HyperLogLog.fromBytes(stored.getRegisters()));
+            if (stored.getDay() == null) {
+                checkpointed = stored.getUpdatedAt();
+            }
+        }
+
+        // Another instance may have checkpointed just before we stopped, so
+        // go back a couple of intervals; counting a visitor twice is harmless
+        LocalDateTime since = checkpointed == null ? null
+                : LocalDateTime.ofInstant(checkpointed.minus(checkpointInterval.multipliedBy(2)), clock.getZone());
+        long replayed = 0;
+        long afterId = 0;
+        List<Visit> page;
+        do {
+            PageRequest request = PageRequest.of(0, REPLAY_PAGE_SIZE);
+            page = since == null
+                    ? visitRepository.findByIdGreaterThanOrderByIdAsc(afterId, request)
+                    : visitRepository.findByLastSeenGreaterThanEqualAndIdGreaterThanOrderByIdAsc(since, afterId,
+                    request);
+            for (Visit visit : page) {
+                LocalDate day = visit.getLastSeen() == null ? null : visit.getLastSeen().toLocalDate();
+                count(visit.getIp(), day != null && !day.isBefore(cutoff) ? day : null);
+                afterId = visit.getId();
+            }
+            replayed += page.size();
+        } while (page.size() == REPLAY_PAGE_SIZE);
+
+        log.info("Restored {} visit sketches, replayed {} visits since {}", sketches.size(), replayed,
+                since == null ? "the beginning" : since);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        try {
+            persist();
+        } catch (RuntimeException e) {
+            log.warn("Could not checkpoint visit sketches on shutdown: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Merges each changed sketch, and always the all-time and today's, with
+     * its stored checkpoint. That writes this instance's visitors and picks
+     * up those counted by other instances.
+     */
+    private void persist() {
+        Set<String> names = new HashSet<>(dirty);
+        names.add(ALL_TIME);
+        names.add(LocalDate.now(clock).toString());
+
+        for (String name : names) {
+            // Cleared first, so visits counted while we write mark it again
+            dirty.remove(name);
+            HyperLogLog sketch = sketches.computeIfAbsent(name, ignored -> new HyperLogLog());
+            Optional<VisitSketch> stored = sketchRepository.findById(name);
+            stored.ifPresent(checkpoint -> sketch.merge(checkpoint.getRegisters()));
+            if (stored.isEmpty() || !sketch.sameAs(stored.get().getRegisters())) {
+                LocalDate day = ALL_TIME.equals(name) ? null : LocalDate.parse(name);
+                sketchRepository.save(new VisitSketch(name, day, sketch.toBytes(), clock.instant()));
+            }
+        }
+    }
+
+    private void count(String ip, LocalDate day) {
+        if (sketches.get(ALL_TIME).add(ip)) {
+            dirty.add(ALL_TIME);
+        }
+        if (day != null) {
+            String name = day.toString();
+            if (sketches.computeIfAbsent(name, ignored -> new HyperLogLog()).add(ip)) {
+                dirty.add(name);
+            }
+        }
     }
 }
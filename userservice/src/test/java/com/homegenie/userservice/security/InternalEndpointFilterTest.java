@@ -0,0 +1,91 @@
+package com.homegenie.userservice.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Instant;
+
+import static com.homegenie.userservice.security.InternalIdentityVerifierTest.SECRET;
+import static com.homegenie.userservice.security.InternalIdentityVerifierTest.claims;
+import static com.homegenie.userservice.security.InternalIdentityVerifierTest.sign;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InternalEndpointFilterTest {
+
+    private final InternalEndpointFilter filter = new InternalEndpointFilter(new InternalIdentityVerifier(SECRET));
+
+    @Test
+    @DisplayName("Should let a signed service call through to /internal/**")
+    void serviceIdentity_Allowed() throws Exception {
+        MockHttpServletRequest request = internalRequest();
+        request.addHeader(InternalIdentityVerifier.HEADER,
+                sign(SECRET, claims("", InternalIdentity.SERVICE_ROLE, "", Instant.now().plusSeconds(60))));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, response, chain);
+
+        assertThat(chain.getRequest()).isSameAs(request);
+        assertThat(response.getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    @DisplayName("Should answer 401 without a signed header")
+    void noIdentity_Rejected() throws Exception {
+        MockHttpServletRequest request = internalRequest();
+        request.addHeader("X-User-Id", "1");
+
+        assertRejected(request);
+    }
+
+    @Test
+    @DisplayName("Should answer 401 for a user's identity, even an admin's")
+    void userIdentity_Rejected() throws Exception {
+        MockHttpServletRequest request = internalRequest();
+        request.addHeader(InternalIdentityVerifier.HEADER,
+                sign(SECRET, claims("1", "ADMIN", "admin@example.com", Instant.now().plusSeconds(60))));
+
+        assertRejected(request);
+    }
+
+    @Test
+    @DisplayName("Should answer 401 for a service identity signed with another secret")
+    void badMac_Rejected() throws Exception {
+        MockHttpServletRequest request = internalRequest();
+        request.addHeader(InternalIdentityVerifier.HEADER, sign("some-other-secret",
+                claims("", InternalIdentity.SERVICE_ROLE, "", Instant.now().plusSeconds(60))));
+
+        assertRejected(request);
+    }
+
+    @Test
+    @DisplayName("Should leave other paths alone")
+    void publicPath_NotFiltered() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/1");
+        request.setServletPath("/api/users/1");
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertThat(chain.getRequest()).isSameAs(request);
+    }
+
+    private void assertRejected(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, response, chain);
+
+        assertThat(response.getStatus()).isEqualTo(401);
+        assertThat(chain.getRequest()).isNull();
+    }
+
+    private static MockHttpServletRequest internalRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/internal/revocations");
+        request.setServletPath("/internal/revocations");
+        return request;
+    }
+}
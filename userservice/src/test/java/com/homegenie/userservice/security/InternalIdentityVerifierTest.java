@@ -0,0 +1,91 @@
+package com.homegenie.userservice.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InternalIdentityVerifierTest {
+
+    static final String SECRET = "test-internal-identity-secret";
+
+    private final InternalIdentityVerifier verifier = new InternalIdentityVerifier(SECRET);
+
+    @Test
+    @DisplayName("Should return the signed identity for a valid header")
+    void verify_ValidHeader() {
+        String header = sign(SECRET, claims("7", "ADMIN", "admin@example.com", Instant.now().plusSeconds(60)));
+
+        assertThat(verifier.verify(header))
+                .contains(new InternalIdentity(7L, "ADMIN", "admin@example.com"));
+    }
+
+    @Test
+    @DisplayName("Should reject a header signed with another secret")
+    void verify_BadMac() {
+        String header = sign("some-other-secret", claims("7", "ADMIN", "", Instant.now().plusSeconds(60)));
+
+        assertThat(verifier.verify(header)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should reject a header whose claims were changed after signing")
+    void verify_TamperedPayload() {
+        String header = sign(SECRET, claims("7", "RESIDENT", "", Instant.now().plusSeconds(60)));
+        String forged = Base64.getUrlEncoder().withoutPadding().encodeToString(
+                claims("7", "ADMIN", "", Instant.now().plusSeconds(60)).getBytes(StandardCharsets.UTF_8));
+
+        assertThat(verifier.verify(forged + header.substring(header.indexOf('.')))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should reject an expired header")
+    void verify_Expired() {
+        String header = sign(SECRET, claims("7", "ADMIN", "", Instant.now().minusSeconds(1)));
+
+        assertThat(verifier.verify(header)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should reject signed payloads that don't hold the expected claims")
+    void verify_MalformedPayload() {
+        long expiry = Instant.now().plusSeconds(60).getEpochSecond();
+
+        assertThat(verifier.verify(sign(SECRET, "7\nADMIN\n" + expiry))).isEmpty();
+        assertThat(verifier.verify(sign(SECRET, "seven\nADMIN\n\n" + expiry))).isEmpty();
+        assertThat(verifier.verify(sign(SECRET, "7\nADMIN\n\nsoon"))).isEmpty();
+        assertThat(verifier.verify("no-signature")).isEmpty();
+        assertThat(verifier.verify("payload.!!!")).isEmpty();
+        assertThat(verifier.verify(null)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should recognise a service identity")
+    void verify_ServiceIdentity() {
+        String header = sign(SECRET, claims("", InternalIdentity.SERVICE_ROLE, "", Instant.now().plusSeconds(60)));
+
+        assertThat(verifier.verify(header)).hasValueSatisfying(identity -> assertThat(identity.isService()).isTrue());
+    }
+
+    static String claims(String userId, String role, String email, Instant expiresAt) {
+        return String.join("\n", userId, role, email, Long.toString(expiresAt.getEpochSecond()));
+    }
+
+    static String sign(String secret, String claims) {
+        try {
+            Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+            String payload = encoder.encodeToString(claims.getBytes(StandardCharsets.UTF_8));
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            return payload + "." + encoder.encodeToString(mac.doFinal(payload.getBytes(StandardCharsets.US_ASCII)));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
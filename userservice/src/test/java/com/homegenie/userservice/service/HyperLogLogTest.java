@@ -0,0 +1,58 @@
+package com.homegenie.userservice.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class HyperLogLogTest {
+
+    @Test
+    @DisplayName("Should be exact-ish for small counts and within 2% for large ones")
+    void estimate_Accuracy() {
+        HyperLogLog small = new HyperLogLog();
+        HyperLogLog large = new HyperLogLog();
+        for (int i = 0; i < 200_000; i++) {
+            String ip = ip(i);
+            if (i < 100) {
+                small.add(ip);
+            }
+            large.add(ip);
+            large.add(ip);
+        }
+
+        assertThat(small.estimate()).isBetween(99L, 101L);
+        assertThat((double) large.estimate()).isCloseTo(200_000, within(4_000.0));
+    }
+
+    @Test
+    @DisplayName("Should only report a change for values it hasn't seen")
+    void add_ReportsChange() {
+        HyperLogLog sketch = new HyperLogLog();
+
+        assertThat(sketch.add("10.0.0.1")).isTrue();
+        assertThat(sketch.add("10.0.0.1")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should count the union after merging another sketch")
+    void merge_Union() {
+        HyperLogLog first = new HyperLogLog();
+        HyperLogLog second = new HyperLogLog();
+        for (int i = 0; i < 10_000; i++) {
+            first.add(ip(i));
+            second.add(ip(i + 5_000));
+        }
+
+        HyperLogLog restored = HyperLogLog.fromBytes(first.toBytes());
+        restored.merge(second.toBytes());
+
+        assertThat(restored.sameAs(first.toBytes())).isFalse();
+        assertThat((double) restored.estimate()).isCloseTo(15_000, within(450.0));
+    }
+
+    private static String ip(int i) {
+        return (i >>> 24 & 0xff) + "." + (i >>> 16 & 0xff) + "." + (i >>> 8 & 0xff) + "." + (i & 0xff);
+    }
+}
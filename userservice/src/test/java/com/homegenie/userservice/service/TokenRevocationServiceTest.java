@@ -0,0 +1,162 @@
+package com.homegenie.userservice.service;
+
+import com.homegenie.userservice.dto.RevocationEvent;
+import com.homegenie.userservice.exception.AuthenticationException;
+import com.homegenie.userservice.exception.ForbiddenException;
+import com.homegenie.userservice.model.RevocationType;
+import com.homegenie.userservice.model.RevokedToken;
+import com.homegenie.userservice.repository.RevokedTokenRepository;
+import com.homegenie.userservice.repository.UserRepository;
+import com.homegenie.userservice.security.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.MalformedJwtException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TokenRevocationServiceTest {
+
+    @Mock
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private JwtUtil jwtUtil;
+
+    @InjectMocks
+    private TokenRevocationService revocationService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(revocationService, "expiration", 86400000L);
+    }
+
+    private Claims claims(String jti, String role) {
+        Claims claims = Jwts.claims();
+        claims.setId(jti);
+        claims.setSubject("test@example.com");
+        claims.put("role", role);
+        claims.setExpiration(new Date(System.currentTimeMillis() + 3600_000));
+        return claims;
+    }
+
+    @Nested
+    @DisplayName("Revocation Tests")
+    class RevocationTests {
+
+        @Test
+        @DisplayName("Should store the jti and expiry of a logged out token")
+        void revokeToken_StoresJti() {
+            Claims claims = claims("jti-1", "RESIDENT");
+            when(jwtUtil.getClaims("token")).thenReturn(claims);
+
+            revocationService.revokeToken("token");
+
+            ArgumentCaptor<RevokedToken> captor = ArgumentCaptor.forClass(RevokedToken.class);
+            verify(revokedTokenRepository).save(captor.capture());
+            assertThat(captor.getValue().getType()).isEqualTo(RevocationType.TOKEN);
+            assertThat(captor.getValue().getSubject()).isEqualTo("jti-1");
+            assertThat(captor.getValue().getExpiresAt()).isEqualTo(claims.getExpiration().toInstant());
+        }
+
+        @Test
+        @DisplayName("Should reject an invalid token")
+        void revokeToken_InvalidToken() {
+            when(jwtUtil.getClaims("bad")).thenThrow(new MalformedJwtException("bad"));
+
+            assertThatThrownBy(() -> revocationService.revokeToken("bad"))
+                    .isInstanceOf(AuthenticationException.class);
+            verify(revokedTokenRepository, never()).save(any());
+        }
+
+        @Test
+        @DisplayName("Should only let admins revoke a user's tokens")
+        void revokeUser_RequiresAdmin() {
+            when(jwtUtil.getClaims("token")).thenReturn(claims("jti-1", "RESIDENT"));
+
+            assertThatThrownBy(() -> revocationService.revokeUser(2L, "token"))
+                    .isInstanceOf(ForbiddenException.class);
+            verify(revokedTokenRepository, never()).save(any());
+        }
+
+        @Test
+        @DisplayName("Should revoke all tokens of an existing user")
+        void revokeUser_Success() {
+            when(jwtUtil.getClaims("token")).thenReturn(claims("jti-1", "ADMIN"));
+            when(userRepository.existsById(2L)).thenReturn(true);
+
+            revocationService.revokeUser(2L, "token");
+
+            ArgumentCaptor<RevokedToken> captor = ArgumentCaptor.forClass(RevokedToken.class);
+            verify(revokedTokenRepository).save(captor.capture());
+            assertThat(captor.getValue().getType()).isEqualTo(RevocationType.USER);
+            assertThat(captor.getValue().getSubject()).isEqualTo("2");
+        }
+    }
+
+    @Nested
+    @DisplayName("Check Tests")
+    class CheckTests {
+
+        @Test
+        @DisplayName("Should report a revoked jti")
+        void isRevoked_Token() {
+            when(revokedTokenRepository.existsByTypeAndSubjectAndLiftedFalse(RevocationType.TOKEN, "jti-1"))
+                    .thenReturn(true);
+
+            assertThat(revocationService.isRevoked("jti-1", "2", 0L)).isTrue();
+        }
+
+        @Test
+        @DisplayName("Should only revoke tokens issued before the user revocation")
+        void isRevoked_User() {
+            Instant revokedAt = Instant.ofEpochMilli(1_000_000);
+            RevokedToken revocation = new RevokedToken(1L, RevocationType.USER, "2", revokedAt,
+                    revokedAt.plusSeconds(3600), false, revokedAt);
+            when(revokedTokenRepository.existsByTypeAndSubjectAndLiftedFalse(eq(RevocationType.TOKEN), anyString()))
+                    .thenReturn(false);
+            when(revokedTokenRepository.findFirstByTypeAndSubjectAndLiftedFalseOrderByRevokedAtDesc(
+                    RevocationType.USER, "2")).thenReturn(Optional.of(revocation));
+
+            assertThat(revocationService.isRevoked("jti-1", "2", 999_000L)).isTrue();
+            assertThat(revocationService.isRevoked("jti-2", "2", 1_001_000L)).isFalse();
+        }
+
+        @Test
+        @DisplayName("Should leave expired revocations out of the feed")
+        void getEventsSince_SkipsExpired() {
+            Instant now = Instant.now();
+            RevokedToken active = new RevokedToken(1L, RevocationType.TOKEN, "jti-1", now,
+                    now.plusSeconds(3600), false, now);
+            RevokedToken expired = new RevokedToken(2L, RevocationType.TOKEN, "jti-2", now.minusSeconds(7200),
+                    now.minusSeconds(60), false, now.minusSeconds(7200));
+            when(revokedTokenRepository.findByUpdatedAtAfterOrderByUpdatedAtAsc(any()))
+                    .thenReturn(List.of(expired, active));
+
+            List<RevocationEvent> events = revocationService.getEventsSince(0);
+
+            assertThat(events).extracting(RevocationEvent::getSubject).containsExactly("jti-1");
+        }
+    }
+}
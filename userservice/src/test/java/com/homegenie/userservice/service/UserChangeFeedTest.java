@@ -0,0 +1,158 @@
+package com.homegenie.userservice.service;
+
+import com.homegenie.userservice.dto.UserChange;
+import com.homegenie.userservice.dto.UserChangeBatch;
+import com.homegenie.userservice.model.UserChangeEvent;
+import com.homegenie.userservice.model.UserChangeType;
+import com.homegenie.userservice.repository.UserChangeEventRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserChangeFeedTest {
+
+    private static final Instant NOW = Instant.parse("2024-05-01T10:00:00Z");
+
+    @Mock
+    private UserChangeEventRepository repository;
+
+    private UserChangeFeed feed;
+
+    @BeforeEach
+    void setUp() {
+        feed = new UserChangeFeed(repository, Duration.ofSeconds(2), 500, Duration.ofDays(7),
+                Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @AfterEach
+    void tearDown() {
+        feed.shutdown();
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(2).toNanos();
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not met in time").isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    private static UserChangeEvent event(long id, long userId, Instant occurredAt) {
+        return new UserChangeEvent(id, userId, UserChangeType.PROFILE_UPDATED, occurredAt);
+    }
+
+    @Nested
+    @DisplayName("Read Tests")
+    class ReadTests {
+
+        @Test
+        @DisplayName("Should return only the current end of the feed without an offset")
+        void read_NoOffset() {
+            when(repository.findFirstByOrderByIdDesc()).thenReturn(Optional.of(event(41, 1, NOW)));
+
+            UserChangeBatch batch = feed.read(null);
+
+            assertThat(batch.getEvents()).isEmpty();
+            assertThat(batch.getNext()).isEqualTo(41);
+            assertThat(batch.isReset()).isFalse();
+        }
+
+        @Test
+        @DisplayName("Should return events in sequence after the offset")
+        void read_InSequence() {
+            when(repository.findFirstByOrderByIdAsc()).thenReturn(Optional.of(event(1, 1, NOW)));
+            when(repository.findByIdGreaterThanOrderByIdAsc(eq(10L), any()))
+                    .thenReturn(List.of(event(11, 5, NOW), event(12, 6, NOW)));
+
+            UserChangeBatch batch = feed.read(10L);
+
+            assertThat(batch.getEvents()).extracting(UserChange::getUserId).containsExactly(5L, 6L);
+            assertThat(batch.getNext()).isEqualTo(12);
+        }
+
+        @Test
+        @DisplayName("Should stop at a recent gap until it settles")
+        void read_HoldsBackRecentGap() {
+            when(repository.findFirstByOrderByIdAsc()).thenReturn(Optional.of(event(1, 1, NOW)));
+            when(repository.findByIdGreaterThanOrderByIdAsc(eq(10L), any()))
+                    .thenReturn(List.of(event(11, 5, NOW), event(13, 6, NOW.minusMillis(500))));
+
+            UserChangeBatch batch = feed.read(10L);
+
+            assertThat(batch.getEvents()).extracting(UserChange::getSequence).containsExactly(11L);
+            assertThat(batch.getNext()).isEqualTo(11);
+        }
+
+        @Test
+        @DisplayName("Should skip a gap once the event after it has settled")
+        void read_SkipsSettledGap() {
+            when(repository.findFirstByOrderByIdAsc()).thenReturn(Optional.of(event(1, 1, NOW)));
+            when(repository.findByIdGreaterThanOrderByIdAsc(eq(10L), any()))
+                    .thenReturn(List.of(event(13, 6, NOW.minusSeconds(5))));
+
+            UserChangeBatch batch = feed.read(10L);
+
+            assertThat(batch.getNext()).isEqualTo(13);
+        }
+
+        @Test
+        @DisplayName("Should ask for a reset when the offset was purged")
+        void read_PurgedOffset() {
+            when(repository.findFirstByOrderByIdAsc()).thenReturn(Optional.of(event(100, 1, NOW)));
+            when(repository.findByIdGreaterThanOrderByIdAsc(eq(10L), any()))
+                    .thenReturn(List.of(event(100, 1, NOW)));
+
+            UserChangeBatch batch = feed.read(10L);
+
+            assertThat(batch.isReset()).isTrue();
+            assertThat(batch.getNext()).isEqualTo(100);
+        }
+    }
+
+    @Nested
+    @DisplayName("Poll Tests")
+    class PollTests {
+
+        @Test
+        @DisplayName("Should hold the poll open and answer when an event is recorded")
+        void poll_WakesOnRecord() throws InterruptedException {
+            when(repository.findFirstByOrderByIdAsc()).thenReturn(Optional.empty());
+            when(repository.findByIdGreaterThanOrderByIdAsc(eq(10L), any()))
+                    .thenReturn(List.of())
+                    .thenReturn(List.of())
+                    .thenReturn(List.of(event(11, 5, NOW)));
+
+            DeferredResult<UserChangeBatch> result = feed.poll(10L, Duration.ofSeconds(30));
+            waitUntil(() -> mockingDetails(repository).getInvocations().stream()
+                    .filter(invocation -> invocation.getMethod().getName().equals("findByIdGreaterThanOrderByIdAsc"))
+                    .count() == 2);
+            assertThat(result.hasResult()).isFalse();
+
+            feed.record(5L, UserChangeType.ROLE_CHANGED);
+
+            waitUntil(result::hasResult);
+            assertThat(((UserChangeBatch) result.getResult()).getNext()).isEqualTo(11);
+            verify(repository).save(argThat(saved -> saved.getUserId() == 5L
+                    && saved.getType() == UserChangeType.ROLE_CHANGED));
+        }
+    }
+}
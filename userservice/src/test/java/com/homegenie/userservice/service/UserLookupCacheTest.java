@@ -0,0 +1,109 @@
+package com.homegenie.userservice.service;
+
+import com.homegenie.userservice.dto.UserResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserLookupCacheTest {
+
+    private ConcurrentMapCacheManager shared;
+    private SimpleMeterRegistry meterRegistry;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        shared = new ConcurrentMapCacheManager(UserLookupCache.USERS, UserLookupCache.USER_IDS_BY_EMAIL,
+                UserLookupCache.USER_EVICTIONS);
+        meterRegistry = new SimpleMeterRegistry();
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    @DisplayName("Should let a cold instance use what another instance loaded")
+    void sharedLevel_ServesColdInstance() {
+        // The first shares the email index, the second loads by id and shares the row
+        newCache().getByEmail("test@example.com", loader());
+        newCache().getByEmail("test@example.com", loader());
+        UserLookupCache cold = newCache();
+
+        UserResponse byEmail = cold.getByEmail("test@example.com", loader());
+        UserResponse byId = cold.get(1L, id -> loader().apply("test@example.com"));
+
+        assertThat(byEmail.getId()).isEqualTo(1L);
+        assertThat(byId.getEmail()).isEqualTo("test@example.com");
+        assertThat(loads).hasValue(2);
+        assertThat(meterRegistry.get("user.cache.shared").tag("result", "hit").counter().count()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should drop a user from both levels on evict")
+    void evict_ClearsBothLevels() {
+        UserLookupCache first = newCache();
+        UserLookupCache second = newCache();
+        first.get(1L, id -> loader().apply("test@example.com"));
+
+        first.evict(1L);
+        second.get(1L, id -> loader().apply("test@example.com"));
+        first.get(1L, id -> loader().apply("test@example.com"));
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("Should not share a row that was evicted while it was being loaded")
+    void evictDuringLoad_NotShared() {
+        UserLookupCache reader = newCache();
+        UserLookupCache writer = newCache();
+
+        // The writer commits and evicts after the reader read the old row
+        reader.get(1L, id -> {
+            UserResponse old = loader().apply("test@example.com");
+            writer.evict(1L);
+            return old;
+        });
+
+        assertThat(shared.getCache(UserLookupCache.USERS).get(1L)).isNull();
+        newCache().get(1L, id -> loader().apply("test@example.com"));
+        assertThat(loads).hasValue(2);
+        assertThat(shared.getCache(UserLookupCache.USERS).get(1L)).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Should accept ids that come back from the shared level as Integer")
+    void sharedEmailIndex_AcceptsInteger() {
+        shared.getCache(UserLookupCache.USER_IDS_BY_EMAIL).put("test@example.com", 1);
+        shared.getCache(UserLookupCache.USERS).put(1L, user());
+
+        UserResponse user = newCache().getByEmail("test@example.com", loader());
+
+        assertThat(user.getId()).isEqualTo(1L);
+        assertThat(loads).hasValue(0);
+    }
+
+    private UserLookupCache newCache() {
+        return new UserLookupCache(100, Duration.ofMinutes(5), shared, meterRegistry);
+    }
+
+    private Function<String, UserResponse> loader() {
+        return email -> {
+            loads.incrementAndGet();
+            return user();
+        };
+    }
+
+    private static UserResponse user() {
+        UserResponse user = new UserResponse();
+        user.setId(1L);
+        user.setEmail("test@example.com");
+        return user;
+    }
+}
@@ -4,13 +4,17 @@ import com.homegenie.userservice.dto.AuthResponse;
 import com.homegenie.userservice.dto.LoginRequest;
 import com.homegenie.userservice.dto.RegisterRequest;
 import com.homegenie.userservice.dto.UserResponse;
+import com.homegenie.userservice.dto.UserSummary;
 import com.homegenie.userservice.exception.AuthenticationException;
 import com.homegenie.userservice.exception.DuplicateResourceException;
+import com.homegenie.userservice.exception.ForbiddenException;
 import com.homegenie.userservice.exception.ResourceNotFoundException;
 import com.homegenie.userservice.model.User;
+import com.homegenie.userservice.model.UserChangeType;
 import com.homegenie.userservice.model.UserRole;
 import com.homegenie.userservice.repository.UserRepository;
 import com.homegenie.userservice.security.JwtUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -18,11 +22,15 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -41,6 +49,13 @@ class UserServiceTest {
     @Mock
     private JwtUtil jwtUtil;
 
+    @Mock
+    private UserChangeFeed changeFeed;
+
+    @Spy
+    private UserLookupCache userCache = new UserLookupCache(100, Duration.ofMinutes(5), null,
+            new SimpleMeterRegistry());
+
     @InjectMocks
     private UserService userService;
 
@@ -92,6 +107,7 @@ class UserServiceTest {
             assertThat(response.getFullName()).isEqualTo("Test User");
             assertThat(response.getRole()).isEqualTo("RESIDENT");
             verify(userRepository).save(any(User.class));
+            verify(changeFeed).record(1L, UserChangeType.REGISTERED);
         }
 
         @Test
@@ -149,6 +165,97 @@ class UserServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("Admin Change Tests")
+    class AdminChangeTests {
+
+        @Test
+        @DisplayName("Should change role and publish ROLE_CHANGED")
+        void changeRole_Success() {
+            when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+
+            UserResponse response = userService.changeRole(1L, "technician", "ADMIN");
+
+            assertThat(response.getRole()).isEqualTo("TECHNICIAN");
+            verify(userRepository).save(testUser);
+            verify(changeFeed).record(1L, UserChangeType.ROLE_CHANGED);
+        }
+
+        @Test
+        @DisplayName("Should not publish when the role is unchanged")
+        void changeRole_Unchanged() {
+            when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+
+            userService.changeRole(1L, "RESIDENT", "ADMIN");
+
+            verify(userRepository, never()).save(any());
+            verifyNoInteractions(changeFeed);
+        }
+
+        @Test
+        @DisplayName("Should deactivate and publish DEACTIVATED")
+        void setActive_Deactivate() {
+            when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+
+            UserResponse response = userService.setActive(1L, false, "ADMIN");
+
+            assertThat(response.isActive()).isFalse();
+            verify(changeFeed).record(1L, UserChangeType.DEACTIVATED);
+            verify(userCache).evict(1L);
+        }
+
+        @Test
+        @DisplayName("Should reject non-admin callers")
+        void setActive_NotAdmin() {
+            assertThatThrownBy(() -> userService.setActive(1L, false, "RESIDENT"))
+                    .isInstanceOf(ForbiddenException.class);
+            verifyNoInteractions(changeFeed);
+        }
+    }
+
+    @Nested
+    @DisplayName("Cache Tests")
+    class CacheTests {
+
+        @Test
+        @DisplayName("Should serve repeated lookups by id or email from the cache")
+        void repeatedLookups_QueryOnce() {
+            when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+
+            userService.getUserByEmail("test@example.com");
+            userService.getUserByEmail("test@example.com");
+            UserResponse response = userService.getUserById(1L);
+
+            assertThat(response.getEmail()).isEqualTo("test@example.com");
+            verify(userRepository, times(1)).findByEmail("test@example.com");
+            verify(userRepository, never()).findById(any());
+        }
+
+        @Test
+        @DisplayName("Should not cache unknown users")
+        void unknownUser_NotCached() {
+            when(userRepository.findById(99L)).thenReturn(Optional.empty());
+
+            assertThatThrownBy(() -> userService.getUserById(99L)).isInstanceOf(ResourceNotFoundException.class);
+            assertThatThrownBy(() -> userService.getUserById(99L)).isInstanceOf(ResourceNotFoundException.class);
+
+            verify(userRepository, times(2)).findById(99L);
+        }
+
+        @Test
+        @DisplayName("Should reload a user after an admin change")
+        void adminChange_Evicts() {
+            when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+
+            userService.getUserById(1L);
+            userService.changeRole(1L, "TECHNICIAN", "ADMIN");
+            UserResponse response = userService.getUserById(1L);
+
+            assertThat(response.getRole()).isEqualTo("TECHNICIAN");
+            verify(userCache).evict(1L);
+        }
+    }
+
     @Nested
     @DisplayName("Login Tests")
     class LoginTests {
@@ -254,5 +361,19 @@ class UserServiceTest {
 
             assertThat(users).hasSize(1);
         }
+
+        @Test
+        @DisplayName("Should resolve a batch of ids with one query, skipping unknown ones")
+        void getUserSummaries() {
+            when(userRepository.findAllById(anySet())).thenReturn(List.of(testUser));
+
+            Map<Long, UserSummary> users = userService.getUserSummaries(List.of(1L, 99L, 1L));
+
+            assertThat(users).containsOnlyKeys(1L);
+            assertThat(users.get(1L).getFullName()).isEqualTo("Test User");
+            assertThat(users.get(1L).getRole()).isEqualTo("RESIDENT");
+            verify(userRepository).findAllById(Set.of(1L, 99L));
+            verify(userRepository, never()).findById(any());
+        }
     }
 }
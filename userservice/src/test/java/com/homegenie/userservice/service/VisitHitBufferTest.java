@@ -0,0 +1,100 @@
+package com.homegenie.userservice.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class VisitHitBufferTest {
+
+    private static final Instant NOW = Instant.parse("2026-10-17T12:00:00Z");
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private VisitHitBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        buffer = new VisitHitBuffer(jdbcTemplate, TransactionOperations.withoutTransaction(), 3,
+                Clock.fixed(NOW, ZoneOffset.UTC), Runnable::run);
+    }
+
+    @Test
+    @DisplayName("Should write one row per IP with its summed hits, sorted by IP")
+    void flush_OneRowPerIp() {
+        buffer.record("10.0.0.2");
+        buffer.record("10.0.0.1");
+        buffer.record("10.0.0.2");
+
+        buffer.flush();
+
+        List<Object[]> batch = captureBatch(1).get(0);
+        assertThat(batch).hasSize(2);
+        assertThat(batch.get(0)).containsExactly("10.0.0.1", LocalDateTime.of(2026, 10, 17, 12, 0), 1L);
+        assertThat(batch.get(1)).containsExactly("10.0.0.2", LocalDateTime.of(2026, 10, 17, 12, 0), 2L);
+    }
+
+    @Test
+    @DisplayName("Should not touch the database when nothing was recorded")
+    void flush_Empty() {
+        buffer.flush();
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("Should flush once the threshold of distinct IPs is reached")
+    void record_FlushesAtThreshold() {
+        buffer.record("10.0.0.1");
+        buffer.record("10.0.0.1");
+        buffer.record("10.0.0.2");
+        verifyNoInteractions(jdbcTemplate);
+
+        buffer.record("10.0.0.3");
+
+        assertThat(captureBatch(1).get(0)).hasSize(3);
+    }
+
+    @Test
+    @DisplayName("Should keep the hits for the next flush when writing fails")
+    void flush_RetriesAfterFailure() {
+        when(jdbcTemplate.batchUpdate(anyString(), anyList()))
+                .thenThrow(new DataAccessResourceFailureException("Connection refused"))
+                .thenReturn(new int[] {1});
+        buffer.record("10.0.0.1");
+        buffer.record("10.0.0.1");
+
+        buffer.flush();
+        buffer.record("10.0.0.1");
+        buffer.flush();
+
+        List<Object[]> retried = captureBatch(2).get(1);
+        assertThat(retried).hasSize(1);
+        assertThat(retried.get(0)[2]).isEqualTo(3L);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<List<Object[]>> captureBatch(int times) {
+        ArgumentCaptor<List<Object[]>> batch = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(times)).batchUpdate(eq(VisitHitBuffer.UPSERT), batch.capture());
+        return batch.getAllValues();
+    }
+}
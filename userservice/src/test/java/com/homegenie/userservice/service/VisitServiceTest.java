@@ -0,0 +1,150 @@
+package com.homegenie.userservice.service;
+
+import com.homegenie.userservice.model.Visit;
+import com.homegenie.userservice.model.VisitSketch;
+import com.homegenie.userservice.repository.VisitRepository;
+import com.homegenie.userservice.repository.VisitSketchRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class VisitServiceTest {
+
+    private static final Instant NOW = Instant.parse("2026-10-17T12:00:00Z");
+    private static final LocalDate TODAY = LocalDate.of(2026, 10, 17);
+
+    @Mock
+    private VisitRepository visitRepository;
+
+    @Mock
+    private VisitSketchRepository sketchRepository;
+
+    @Mock
+    private VisitHitBuffer hitBuffer;
+
+    private VisitService visitService;
+
+    @BeforeEach
+    void setUp() {
+        visitService = new VisitService(visitRepository, sketchRepository, hitBuffer, 30, Duration.ofMinutes(1),
+                Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Nested
+    @DisplayName("Record Visit Tests")
+    class RecordVisitTests {
+
+        @Test
+        @DisplayName("Should buffer the hit and answer from the sketch without touching the table")
+        void recordVisit_NoDatabase() {
+            visitService.recordVisit("10.0.0.1");
+            visitService.recordVisit("10.0.0.2");
+            int unique = visitService.recordVisit("10.0.0.1");
+
+            assertThat(unique).isEqualTo(2);
+            assertThat(visitService.uniqueCount(TODAY)).isEqualTo(2);
+            assertThat(visitService.uniqueCount(TODAY.minusDays(1))).isZero();
+            verify(hitBuffer, times(2)).record("10.0.0.1");
+            verifyNoInteractions(visitRepository);
+        }
+    }
+
+    @Nested
+    @DisplayName("Checkpoint Tests")
+    class CheckpointTests {
+
+        @Test
+        @DisplayName("Should merge the stored sketch and write back the union")
+        void checkpoint_MergesStored() {
+            HyperLogLog other = new HyperLogLog();
+            other.add("10.0.0.9");
+            when(sketchRepository.findById(VisitService.ALL_TIME)).thenReturn(Optional.of(
+                    new VisitSketch(VisitService.ALL_TIME, null, other.toBytes(), NOW.minusSeconds(60))));
+            when(sketchRepository.findById(TODAY.toString())).thenReturn(Optional.empty());
+            visitService.recordVisit("10.0.0.1");
+
+            visitService.checkpoint();
+
+            ArgumentCaptor<VisitSketch> saved = ArgumentCaptor.forClass(VisitSketch.class);
+            verify(sketchRepository, times(2)).save(saved.capture());
+            assertThat(saved.getAllValues()).extracting(VisitSketch::getName)
+                    .containsExactlyInAnyOrder(VisitService.ALL_TIME, TODAY.toString());
+            assertThat(visitService.uniqueCount()).isEqualTo(2);
+            verify(sketchRepository).deleteByDayBefore(TODAY.minusDays(30));
+        }
+
+        @Test
+        @DisplayName("Should not write a sketch that matches its checkpoint")
+        void checkpoint_SkipsUnchanged() {
+            when(sketchRepository.findById(VisitService.ALL_TIME)).thenReturn(Optional.of(
+                    new VisitSketch(VisitService.ALL_TIME, null, new HyperLogLog().toBytes(), NOW)));
+            when(sketchRepository.findById(TODAY.toString())).thenReturn(Optional.of(
+                    new VisitSketch(TODAY.toString(), TODAY, new HyperLogLog().toBytes(), NOW)));
+
+            visitService.checkpoint();
+
+            verify(sketchRepository, never()).save(any());
+        }
+    }
+
+    @Nested
+    @DisplayName("Restore Tests")
+    class RestoreTests {
+
+        @Test
+        @DisplayName("Should load checkpoints and replay only visits seen since")
+        void restore_ReplaysSinceCheckpoint() {
+            HyperLogLog stored = new HyperLogLog();
+            stored.add("10.0.0.1");
+            Instant checkpointed = NOW.minusSeconds(600);
+            when(sketchRepository.findAll()).thenReturn(List.of(
+                    new VisitSketch(VisitService.ALL_TIME, null, stored.toBytes(), checkpointed),
+                    new VisitSketch("2026-08-01", LocalDate.of(2026, 8, 1), stored.toBytes(), checkpointed)));
+            Visit recent = new Visit("10.0.0.2");
+            recent.setId(5L);
+            recent.setLastSeen(LocalDateTime.of(2026, 10, 17, 11, 55));
+            when(visitRepository.findByLastSeenGreaterThanEqualAndIdGreaterThanOrderByIdAsc(
+                    eq(LocalDateTime.of(2026, 10, 17, 11, 48)), eq(0L), any())).thenReturn(List.of(recent));
+
+            visitService.restore();
+
+            assertThat(visitService.uniqueCount()).isEqualTo(2);
+            assertThat(visitService.uniqueCount(TODAY)).isEqualTo(1);
+            assertThat(visitService.uniqueCount(LocalDate.of(2026, 8, 1))).isZero();
+            verify(visitRepository, never()).findByIdGreaterThanOrderByIdAsc(any(), any());
+        }
+
+        @Test
+        @DisplayName("Should rebuild from the whole table without a checkpoint")
+        void restore_WithoutCheckpoint() {
+            when(sketchRepository.findAll()).thenReturn(List.of());
+            Visit old = new Visit("10.0.0.3");
+            old.setId(1L);
+            old.setLastSeen(LocalDateTime.of(2025, 1, 1, 0, 0));
+            when(visitRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any())).thenReturn(List.of(old));
+
+            visitService.restore();
+
+            assertThat(visitService.uniqueCount()).isEqualTo(1);
+        }
+    }
+}